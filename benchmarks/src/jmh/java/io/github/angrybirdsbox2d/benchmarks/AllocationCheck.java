@@ -0,0 +1,243 @@
+package io.github.angrybirdsbox2d.benchmarks;
+
+import io.github.angrybirdsbox2d.BirdType;
+import io.github.angrybirdsbox2d.LevelSimulator;
+import io.github.angrybirdsbox2d.LevelSingle;
+import io.github.angrybirdsbox2d.RenderState;
+import io.github.angrybirdsbox2d.SimulationThread;
+import io.github.angrybirdsbox2d.SlingAim;
+import io.github.angrybirdsbox2d.SpriteLayout;
+import io.github.angrybirdsbox2d.TrajectoryPreview;
+import io.github.angrybirdsbox2d.WorldSnapshot;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays each built-in level headless the way GameScreen drives it, a frame at a
+ * time: the touch going down on the sling, a drag clamped by {@link SlingAim}, the
+ * trajectory preview, and a full shot stepped until the bird is retired. Every frame
+ * also lays out the sprites and band GameScreen would draw, through the same
+ * {@link SpriteLayout} and {@link SlingAim} it uses, short of the GL calls.
+ * <p>
+ * The first playthrough warms up and grows every buffer. In the second, after a
+ * restart, any single frame that allocates fails the check, which then exits non-zero.
+ * Creating the aiming and launched birds' bodies happens once per shot and is left out.
+ * <p>
+ * Each level is then played again through a {@link SimulationThread}, checking the
+ * render thread's side of it the same way: aim and launch commands going in, and
+ * snapshots coming back every frame.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:allocationCheck}; it is part of {@code check}.
+ */
+public class AllocationCheck {
+    private static final int AIM_FRAMES = 120;
+    private static final int MAX_FLIGHT_FRAMES = 900;
+    private static final float SLING_X = 100;
+    private static final float SLING_Y = 95;
+    private static final float SLING_W = 50;
+    private static final float SLING_H = 60;
+    private static final float BLEND = 0.5f;
+    // Threaded frames run in real time, so only the start of each flight is watched
+    private static final int THREADED_FLIGHT_FRAMES = 60;
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long threadId = Thread.currentThread().getId();
+    private final TrajectoryPreview trajectory = new TrajectoryPreview();
+    private final SlingAim sling = new SlingAim();
+    private final SpriteLayout sprites = new SpriteLayout(64);
+    // What reading the counter costs by itself, on JDKs where that allocates
+    private final long readCost;
+
+    private boolean measuring;
+    private long frameStart;
+    private int frames;
+    private int allocatingFrames;
+    private long worstFrame;
+
+    private AllocationCheck() {
+        long cost = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long start = threads.getThreadAllocatedBytes(threadId);
+            cost = Math.min(cost, threads.getThreadAllocatedBytes(threadId) - start);
+        }
+        readCost = cost;
+        sling.setBounds(SLING_X, SLING_Y, SLING_W, SLING_H);
+    }
+
+    public static void main(String[] args) {
+        AllocationCheck check = new AllocationCheck();
+        boolean passed = true;
+        for (int level = 1; level <= 4; level++) {
+            passed &= check.run(level);
+            passed &= check.runThreaded(level);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private boolean run(int levelNumber) {
+        LevelSimulator simulator = new LevelSimulator(new LevelSingle(levelNumber, 0, true)
+            .instantiate(LevelSimulator.DEFAULT_WORLD_WIDTH));
+        simulator.setSlingAnchor(sling.getAnchorX(), sling.getAnchorY());
+
+        measuring = false;
+        play(simulator);
+        simulator.restart();
+        reset();
+        play(simulator);
+        simulator.dispose();
+
+        return report("level " + levelNumber);
+    }
+
+    private boolean runThreaded(int levelNumber) {
+        LevelSimulator simulator = new LevelSimulator(new LevelSingle(levelNumber, 0, true)
+            .instantiate(LevelSimulator.DEFAULT_WORLD_WIDTH));
+        simulator.setSlingAnchor(sling.getAnchorX(), sling.getAnchorY());
+
+        measuring = false;
+        SimulationThread warmUp = new SimulationThread(simulator);
+        warmUp.start();
+        playThreaded(warmUp, simulator);
+        warmUp.stop();
+
+        simulator.restart();
+        reset();
+        SimulationThread measured = new SimulationThread(simulator);
+        measured.start();
+        playThreaded(measured, simulator);
+        measured.stop();
+        simulator.dispose();
+
+        return report("level " + levelNumber + " threaded");
+    }
+
+    private void reset() {
+        measuring = true;
+        frames = 0;
+        allocatingFrames = 0;
+        worstFrame = 0;
+    }
+
+    private boolean report(String name) {
+        boolean passed = allocatingFrames == 0;
+        System.out.printf("%s: %d frames, %d allocated, worst %d bytes %s%n",
+            name, frames, allocatingFrames, worstFrame, passed ? "ok" : "FAILED");
+        return passed;
+    }
+
+    private void beginFrame() {
+        frameStart = threads.getThreadAllocatedBytes(threadId);
+    }
+
+    private void endFrame() {
+        long allocated = threads.getThreadAllocatedBytes(threadId) - frameStart - readCost;
+        if (!measuring) return;
+        frames++;
+        if (allocated > 0) {
+            allocatingFrames++;
+            worstFrame = Math.max(worstFrame, allocated);
+        }
+    }
+
+    private void play(LevelSimulator simulator) {
+        // touchDown on the anchor; the aiming body it creates is made once per shot
+        beginFrame();
+        sling.press(sling.getAnchorX(), sling.getAnchorY());
+        endFrame();
+        simulator.beginAim(sling.getAnchorX(), sling.getAnchorY());
+
+        for (int i = 0; i < AIM_FRAMES; i++) {
+            beginFrame();
+            drag(i);
+            simulator.updateAim(sling.getDragX(), sling.getDragY());
+            trajectory.update(simulator.getWorld(), simulator.getAimBody(),
+                sling.getAnchorX(), sling.getAnchorY(), sling.getPullX(), sling.getPullY());
+            draw(simulator.getEntities(), simulator, null, false);
+            endFrame();
+        }
+
+        // touchUp, then the launch, which creates the bird's body
+        beginFrame();
+        sling.release();
+        endFrame();
+        simulator.endAim();
+        simulator.launchBird(sling.getDragX(), sling.getDragY(), sling.getPullX(), sling.getPullY());
+
+        for (int i = 0; i < MAX_FLIGHT_FRAMES; i++) {
+            beginFrame();
+            simulator.step();
+            boolean retired = simulator.retireStoppedBird();
+            draw(simulator.getEntities(), simulator, null, !retired);
+            endFrame();
+            if (retired) break;
+        }
+    }
+
+    // Only this thread's allocations count: it plays the render thread
+    private void playThreaded(SimulationThread thread, LevelSimulator simulator) {
+        beginFrame();
+        sling.press(sling.getAnchorX(), sling.getAnchorY());
+        thread.beginAim(sling.getAnchorX(), sling.getAnchorY());
+        endFrame();
+
+        for (int i = 0; i < AIM_FRAMES; i++) {
+            beginFrame();
+            drag(i);
+            thread.updateAim(sling.getDragX(), sling.getDragY());
+            WorldSnapshot snapshot = thread.latest();
+            draw(snapshot, simulator, snapshot, false);
+            endFrame();
+            LockSupport.parkNanos(FRAME_NANOS);
+        }
+
+        beginFrame();
+        sling.release();
+        thread.endAim();
+        thread.launchBird(sling.getDragX(), sling.getDragY(), sling.getPullX(), sling.getPullY());
+        endFrame();
+
+        for (int i = 0; i < THREADED_FLIGHT_FRAMES; i++) {
+            beginFrame();
+            WorldSnapshot snapshot = thread.latest();
+            draw(snapshot, simulator, snapshot, true);
+            endFrame();
+            LockSupport.parkNanos(FRAME_NANOS);
+        }
+    }
+
+    // touchDragged: pull back and down a little further every frame, past the clamp by the end
+    private void drag(int frame) {
+        float dragX = -LevelSimulator.MAX_DRAG_DISTANCE * 1.2f * (frame + 1) / AIM_FRAMES;
+        sling.drag(sling.getAnchorX() + dragX, sling.getAnchorY() - dragX * 0.25f);
+    }
+
+    // GameScreen's render pass short of the batch: sprite layout and the sling band
+    private void draw(RenderState entities, LevelSimulator simulator, WorldSnapshot snapshot, boolean launched) {
+        int birdCount = snapshot != null ? snapshot.getBirdCount() : simulator.getLevel().getBirds().size();
+        sprites.clear();
+        if (birdCount > 0) {
+            sprites.addNextBird(entities, BLEND, sling, birdType(simulator, snapshot, 0), launched);
+            for (int i = 1; i < birdCount; i++) {
+                sprites.addWaitingBird(sling, birdType(simulator, snapshot, i), i);
+            }
+        }
+        sprites.addBlocksAndPigs(entities, BLEND, simulator.getWorldWidth(), simulator.getWorldHeight());
+        if (sling.isDragging()) {
+            for (int i = 0; i < SlingAim.BAND_STRANDS; i++) {
+                sling.getBandStartX(i);
+            }
+            sling.getBandStartY();
+        }
+    }
+
+    private static BirdType birdType(LevelSimulator simulator, WorldSnapshot snapshot, int index) {
+        return snapshot != null ? snapshot.getBirdType(index)
+            : simulator.getLevel().getBirds().get(index).getBirdType();
+    }
+}
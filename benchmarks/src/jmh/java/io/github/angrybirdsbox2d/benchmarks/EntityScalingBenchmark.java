@@ -0,0 +1,57 @@
+package io.github.angrybirdsbox2d.benchmarks;
+
+import io.github.angrybirdsbox2d.LevelGenerator;
+import io.github.angrybirdsbox2d.LevelSimulator;
+import io.github.angrybirdsbox2d.LevelSingle;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** How World.step and the object sync scale with body count, on generated stress levels. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class EntityScalingBenchmark {
+    private static final long SEED = 42L;
+
+    @Param({"100", "1000", "10000"})
+    public int bodies;
+
+    private LevelSimulator simulator;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        int pigs = Math.max(1, bodies / 10);
+        int blocks = bodies - pigs;
+        LevelGenerator generator = new LevelGenerator(SEED)
+            .setBlocks(blocks / 2, blocks / 4, blocks - blocks / 2 - blocks / 4)
+            .setPigs(pigs);
+        LevelSingle level = generator.generate(1);
+        simulator = new LevelSimulator(level, generator.getWorldWidth(), generator.getWorldHeight());
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        simulator.dispose();
+    }
+
+    @Benchmark
+    public void worldStep() {
+        simulator.getWorld().step(LevelSimulator.TIME_STEP,
+            LevelSimulator.VELOCITY_ITERATIONS, LevelSimulator.POSITION_ITERATIONS);
+    }
+
+    @Benchmark
+    public void updateGameObjects() {
+        simulator.syncGameObjects();
+    }
+
+    @Benchmark
+    public int buildWorld() {
+        LevelSimulator built = new LevelSimulator(simulator.getLevel().copy(),
+            simulator.getWorldWidth(), simulator.getWorldHeight());
+        int count = built.getBodyCount();
+        built.dispose();
+        return count;
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.angrybirdsbox2d.benchmarks;
+
+import io.github.angrybirdsbox2d.GameSaveData;
+import io.github.angrybirdsbox2d.LevelSimulator;
+import io.github.angrybirdsbox2d.LevelSingle;
+import io.github.angrybirdsbox2d.SaveCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/** Building levels and their Box2D worlds, and the save format round-trip. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class LevelConstructionBenchmark {
+    @Param({"1", "2", "3", "4"})
+    public int levelNumber;
+
+    private LevelSingle level;
+    private LevelSingle layout;
+    private GameSaveData save;
+    private ByteBuffer encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        level = new LevelSingle(levelNumber, 0, true);
+        layout = level.instantiate(LevelSimulator.DEFAULT_WORLD_WIDTH);
+        save = new GameSaveData(Collections.singletonList(level), levelNumber);
+        encoded = SaveCodec.encode(save);
+    }
+
+    @Benchmark
+    public LevelSingle buildLevel() {
+        return level.instantiate(LevelSimulator.DEFAULT_WORLD_WIDTH);
+    }
+
+    @Benchmark
+    public int buildWorld() {
+        LevelSimulator simulator = new LevelSimulator(layout.copy());
+        int bodies = simulator.getWorld().getBodyCount();
+        simulator.dispose();
+        return bodies;
+    }
+
+    @Benchmark
+    public ByteBuffer encode() {
+        return SaveCodec.encode(save);
+    }
+
+    @Benchmark
+    public GameSaveData decode() throws IOException {
+        return SaveCodec.decode(encoded.duplicate());
+    }
+}
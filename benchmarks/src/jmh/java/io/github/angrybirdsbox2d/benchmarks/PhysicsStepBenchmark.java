@@ -0,0 +1,57 @@
+package io.github.angrybirdsbox2d.benchmarks;
+
+import io.github.angrybirdsbox2d.LevelSimulator;
+import io.github.angrybirdsbox2d.LevelSingle;
+import io.github.angrybirdsbox2d.WorldCheckpoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one fixed World.step and one object sync on each built-in level, mid-shot.
+ * The level is put back to the moment of launch every {@link #STEPS_PER_SHOT} steps,
+ * so steps are measured on a flight and the collapse it causes rather than on a world
+ * that has gone to sleep; the restore is counted, spread over those steps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class PhysicsStepBenchmark {
+    @Param({"1", "2", "3", "4"})
+    public int levelNumber;
+
+    // Three simulated seconds: the bird's flight and the structure coming down
+    private static final int STEPS_PER_SHOT = 180;
+
+    private LevelSimulator simulator;
+    private WorldCheckpoint launched;
+    private int steps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        simulator = new LevelSimulator(new LevelSingle(levelNumber, 0, true)
+            .instantiate(LevelSimulator.DEFAULT_WORLD_WIDTH));
+        simulator.launchFromSling(-LevelSimulator.MAX_DRAG_DISTANCE, 0);
+        launched = WorldCheckpoint.capture(simulator);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        simulator.dispose();
+    }
+
+    @Benchmark
+    public void worldStep() {
+        if (++steps == STEPS_PER_SHOT) {
+            simulator.restore(launched);
+            steps = 0;
+        }
+        simulator.getWorld().step(LevelSimulator.TIME_STEP,
+            LevelSimulator.VELOCITY_ITERATIONS, LevelSimulator.POSITION_ITERATIONS);
+    }
+
+    @Benchmark
+    public void updateGameObjects() {
+        simulator.syncGameObjects();
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.angrybirdsbox2d.benchmarks;
+
+import io.github.angrybirdsbox2d.LevelSimulator;
+import io.github.angrybirdsbox2d.Replay;
+import io.github.angrybirdsbox2d.ReplayRunner;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Plays a recorded session headless as fast as the simulator can step, then reports
+ * how much faster than real time it ran and which step was slowest. Useful for
+ * turning a shot that hitched in game into something that can be profiled.
+ * <p>
+ * Run with {@code ./gradlew :benchmarks:replay -Preplay=<file>.abr}.
+ */
+public class ReplayPlayback {
+    // Lets the last shot settle after the final recorded input, 5 s at 60 Hz
+    private static final int TAIL_STEPS = 300;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("usage: ReplayPlayback <replay.abr>");
+            System.exit(2);
+        }
+        Replay replay = Replay.read(Paths.get(args[0]));
+        LevelSimulator simulator = replay.newSimulator();
+        ReplayRunner runner = new ReplayRunner(replay, simulator);
+
+        long start = System.nanoTime();
+        long steps = runner.runHeadless(TAIL_STEPS);
+        long elapsed = System.nanoTime() - start;
+        simulator.dispose();
+
+        double simulatedSeconds = steps * (double) replay.getTimeStep();
+        System.out.printf("level %d: %d events, %d steps (%.1f s simulated) in %.1f ms, %.1fx real time%n",
+            replay.getLevel().getNumber(), replay.getEventCount(), steps, simulatedSeconds,
+            elapsed / 1e6, simulatedSeconds / (elapsed / 1e9));
+        System.out.printf("slowest step: %.3f ms at step %d; %d birds retired%n",
+            runner.getSlowestStepNanos() / 1e6, runner.getSlowestStep(), runner.getBirdsRetired());
+    }
+}
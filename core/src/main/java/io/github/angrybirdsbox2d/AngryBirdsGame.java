@@ -5,17 +5,44 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class AngryBirdsGame extends Game {
+    // Texture uploads allowed per frame once past the loading screen
+    private static final long UPLOAD_BUDGET_NANOS = 2_000_000L;
+
     public SpriteBatch gameBatch;
     private MainMenuScreen menuScreen;
 
     @Override
     public void create() {
         gameBatch = new SpriteBatch();
-        AssetManager.getInstance().loadTextures();
+        AssetManager.getInstance().load(AssetManager.GROUP_UI);
+        setScreen(new LoadingScreen(this));
+    }
+
+    /** Called by the loading screen once the UI textures are resident. */
+    public void showMainMenu() {
         menuScreen = new MainMenuScreen(this);
         setScreen(menuScreen);
         AudioManager.getInstance().playBackgroundMusic();
+
+        // -Dangrybirds.replay=<file> plays a recorded session instead of waiting for input
+        String replayPath = System.getProperty("angrybirds.replay");
+        if (replayPath != null) {
+            try {
+                setScreen(new GameScreen(this, Replay.read(Paths.get(replayPath))));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public void render() {
+        AssetManager.getInstance().update(UPLOAD_BUDGET_NANOS);
+        super.render();
     }
 
     public MainMenuScreen getMenuScreen() {
@@ -43,5 +70,7 @@ public class AngryBirdsGame extends Game {
     public void dispose() {
         gameBatch.dispose();
         AudioManager.getInstance().dispose();
+        SaveService.getInstance().dispose();
+        AssetManager.getInstance().dispose();
     }
 }
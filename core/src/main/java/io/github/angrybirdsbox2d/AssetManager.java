@@ -1,17 +1,75 @@
 package io.github.angrybirdsbox2d;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Textures are declared up front in named groups. Loading a group decodes its images
+ * to Pixmaps on a pool of worker threads; {@link #update(long)} then uploads the
+ * finished ones to GL from the render thread, a few per frame within a time budget.
+ * Groups are reference counted: each {@link #load(String)} needs a matching
+ * {@link #unload(String)}, and a texture is disposed once no loaded group uses it.
+ * <p>
+ * {@link #getTexture(String)} never returns null for a declared image: if it is not
+ * resident yet it is finished (or loaded) right away on the calling thread.
+ */
 public class AssetManager {
+    public static final String GROUP_UI = "ui";
+    public static final String GROUP_GAMEPLAY = "gameplay";
+
+    // Packed from the sprites below by the packTextures Gradle task
+    public static final String GAMEPLAY_ATLAS = "gameplay.atlas";
+    private static final String[] GAMEPLAY_SPRITES = {
+        "catapult_back", "catapult_front", "red_bird", "yellow_bird", "black_bird",
+        "small_pig", "medium_pig", "large_pig", "wood_block", "glass_block", "steel_block"
+    };
+
     private static AssetManager manager;
-    private final Map<String, Texture> gameTextures;
+
+    private static class Entry {
+        final String name;
+        Future<Pixmap> decoding;
+        Texture texture;
+        int refs;
+
+        Entry(String name) {
+            this.name = name;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, List<String>> groups = new HashMap<>();
+    private final Map<String, Integer> groupRefs = new HashMap<>();
+    private final List<Entry> uploadQueue = new ArrayList<>();
+    private final ExecutorService decoder;
+    private int queuedTotal;
+    private int queuedDone;
+
+    private final Map<String, TextureRegion> gameRegions = new HashMap<>();
+    private TextureAtlas.TextureAtlasData gameplayAtlasData;
 
     private AssetManager() {
-        gameTextures = new HashMap<>();
-        loadTextures();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        decoder = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "asset-decoder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        declareGroups();
     }
 
     public static AssetManager getInstance() {
@@ -21,42 +79,199 @@ public class AssetManager {
         return manager;
     }
 
-    void loadTextures() {
-        gameTextures.put("main_screen_bg.jpg", new Texture("main_screen_bg.jpg"));
-        gameTextures.put("levelscreen_bg.jpg", new Texture("levelscreen_bg.jpg"));
-        gameTextures.put("backgroundlevel.png", new Texture("backgroundlevel.png"));
-        gameTextures.put("pause_button_bg.png", new Texture("pause_button_bg.png"));
-        gameTextures.put("button_bg.png", new Texture("button_bg.png"));
-        gameTextures.put("level_button.png", new Texture("level_button.png"));
-        gameTextures.put("locked_button.png", new Texture("locked_button.png"));
-        gameTextures.put("backbutton.png", new Texture("backbutton.png"));
-        gameTextures.put("close.png", new Texture("close.png"));
-        gameTextures.put("pause.png", new Texture("pause.png"));
-        gameTextures.put("gear_icon.png", new Texture("gear_icon.png"));
-        gameTextures.put("star_3.png", new Texture("star_3.png"));
-        gameTextures.put("star_2.png", new Texture("star_2.png"));
-        gameTextures.put("star_1.png", new Texture("star_1.png"));
-        gameTextures.put("lines.png", new Texture("lines.png"));
-        gameTextures.put("retry.png", new Texture("retry.png"));
-        gameTextures.put("next.png", new Texture("next.png"));
-        gameTextures.put("level_0star.png", new Texture("level_0star.png"));
-        gameTextures.put("level_1star.png", new Texture("level_1star.png"));
-        gameTextures.put("level_2star.png", new Texture("level_2star.png"));
-        gameTextures.put("level_3star.png", new Texture("level_3star.png"));
-        gameTextures.put("catapult_front.png", new Texture("catapult_front.png"));
-        gameTextures.put("catapult_back.png", new Texture("catapult_back.png"));
-        gameTextures.put("red_bird.png", new Texture("red_bird.png"));
-        gameTextures.put("yellow_bird.png", new Texture("yellow_bird.png"));
-        gameTextures.put("black_bird.png", new Texture("black_bird.png"));
-        gameTextures.put("small_pig.png", new Texture("small_pig.png"));
-        gameTextures.put("medium_pig.png", new Texture("medium_pig.png"));
-        gameTextures.put("large_pig.png", new Texture("large_pig.png"));
-        gameTextures.put("wood_block.png", new Texture("wood_block.png"));
-        gameTextures.put("glass_block.png", new Texture("glass_block.png"));
-        gameTextures.put("steel_block.png", new Texture("steel_block.png"));
+    private void declareGroups() {
+        declare(GROUP_UI, "main_screen_bg.jpg", "levelscreen_bg.jpg", "pause_button_bg.png",
+            "button_bg.png", "level_button.png", "locked_button.png", "backbutton.png", "close.png",
+            "pause.png", "gear_icon.png", "star_3.png", "star_2.png", "star_1.png", "lines.png",
+            "retry.png", "next.png", "level_0star.png", "level_1star.png", "level_2star.png",
+            "level_3star.png");
+
+        List<String> gameplay = new ArrayList<>();
+        gameplay.add("backgroundlevel.png");
+        FileHandle atlasFile = Gdx.files.internal(GAMEPLAY_ATLAS);
+        if (atlasFile.exists()) {
+            gameplayAtlasData = new TextureAtlas.TextureAtlasData(atlasFile, atlasFile.parent(), false);
+            for (TextureAtlas.TextureAtlasData.Page page : gameplayAtlasData.getPages()) {
+                gameplay.add(page.textureFile.path());
+            }
+        } else {
+            for (String sprite : GAMEPLAY_SPRITES) {
+                gameplay.add(sprite + ".png");
+            }
+        }
+        declare(GROUP_GAMEPLAY, gameplay.toArray(new String[0]));
+    }
+
+    private void declare(String group, String... names) {
+        groups.put(group, Arrays.asList(names));
+        for (String name : names) {
+            entries.computeIfAbsent(name, Entry::new);
+        }
+    }
+
+    /** Starts decoding every image of {@code group} that is not resident yet. */
+    public void load(String group) {
+        groupRefs.merge(group, 1, Integer::sum);
+        for (String name : groups.get(group)) {
+            Entry entry = entries.get(name);
+            entry.refs++;
+            if (entry.texture == null && entry.decoding == null) {
+                FileHandle file = Gdx.files.internal(name);
+                entry.decoding = decoder.submit(() -> new Pixmap(file));
+                uploadQueue.add(entry);
+                queuedTotal++;
+            }
+        }
+    }
+
+    /** Drops one reference to {@code group}; images no loaded group uses any more are disposed. */
+    public void unload(String group) {
+        Integer refs = groupRefs.get(group);
+        if (refs == null) return;
+        if (refs == 1) {
+            groupRefs.remove(group);
+        } else {
+            groupRefs.put(group, refs - 1);
+        }
+
+        if (GROUP_GAMEPLAY.equals(group) && !groupRefs.containsKey(group)) {
+            gameRegions.clear();
+        }
+        for (String name : groups.get(group)) {
+            Entry entry = entries.get(name);
+            if (--entry.refs <= 0) {
+                entry.refs = 0;
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Uploads decoded images to GL until {@code budgetNanos} has been spent. Call once
+     * per frame from the render thread. Returns true when nothing is left to upload.
+     */
+    public boolean update(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        while (!uploadQueue.isEmpty()) {
+            Entry entry = uploadQueue.get(0);
+            if (!entry.decoding.isDone()) break;
+            uploadQueue.remove(0);
+            upload(entry);
+            queuedDone++;
+            if (System.nanoTime() >= deadline) break;
+        }
+        if (uploadQueue.isEmpty()) {
+            queuedTotal = 0;
+            queuedDone = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /** Fraction of the images queued since loading last went idle that are resident. */
+    public float getProgress() {
+        return queuedTotal == 0 ? 1f : (float) queuedDone / queuedTotal;
+    }
+
+    public boolean isLoaded(String group) {
+        for (String name : groups.get(group)) {
+            if (entries.get(name).texture == null) return false;
+        }
+        return true;
     }
 
     public Texture getTexture(String imgName) {
-        return gameTextures.get(imgName);
+        Entry entry = entries.computeIfAbsent(imgName, Entry::new);
+        if (entry.texture == null) {
+            // Not resident yet: finish a pending decode here, or decode now for a group nobody loaded
+            if (entry.decoding == null) {
+                Pixmap pixmap = new Pixmap(Gdx.files.internal(imgName));
+                entry.texture = new Texture(pixmap);
+                pixmap.dispose();
+            } else {
+                if (uploadQueue.remove(entry)) {
+                    queuedDone++;
+                }
+                upload(entry);
+            }
+        }
+        return entry.texture;
+    }
+
+    private void upload(Entry entry) {
+        Pixmap pixmap;
+        try {
+            pixmap = entry.decoding.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException("Interrupted while loading " + entry.name, e);
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException("Couldn't load " + entry.name, e.getCause());
+        }
+        entry.decoding = null;
+        entry.texture = new Texture(pixmap);
+        pixmap.dispose();
+    }
+
+    private void release(Entry entry) {
+        if (entry.decoding != null) {
+            if (uploadQueue.remove(entry)) {
+                queuedDone++;
+            }
+            Future<Pixmap> decoding = entry.decoding;
+            entry.decoding = null;
+            if (!decoding.cancel(false) && decoding.isDone()) {
+                try {
+                    decoding.get().dispose();
+                } catch (Exception ignored) {
+                    // Never made it to a Pixmap, nothing to free
+                }
+            }
+        }
+        if (entry.texture != null) {
+            entry.texture.dispose();
+            entry.texture = null;
+        }
+    }
+
+    /**
+     * Gameplay sprites come from the packed atlas when it has been built, so they all
+     * share one texture; otherwise each region simply covers its own texture.
+     * Resolve once and keep it; regions stay valid while the gameplay group is loaded.
+     */
+    public TextureRegion getRegion(String imgName) {
+        if (gameRegions.isEmpty()) {
+            loadGameplayRegions();
+        }
+        return gameRegions.get(imgName);
+    }
+
+    private void loadGameplayRegions() {
+        TextureAtlas atlas = null;
+        if (gameplayAtlasData != null) {
+            for (TextureAtlas.TextureAtlasData.Page page : gameplayAtlasData.getPages()) {
+                page.texture = getTexture(page.textureFile.path());
+            }
+            // Pages already have textures, so the atlas only builds regions; it is never disposed
+            atlas = new TextureAtlas(gameplayAtlasData);
+        }
+        for (String sprite : GAMEPLAY_SPRITES) {
+            TextureRegion region = atlas != null ? atlas.findRegion(sprite) : null;
+            if (region == null) {
+                region = new TextureRegion(getTexture(sprite + ".png"));
+            }
+            gameRegions.put(sprite + ".png", region);
+        }
+    }
+
+    public void dispose() {
+        decoder.shutdownNow();
+        for (Entry entry : entries.values()) {
+            release(entry);
+        }
+        gameRegions.clear();
+        uploadQueue.clear();
+        groupRefs.clear();
+        manager = null;
     }
 }
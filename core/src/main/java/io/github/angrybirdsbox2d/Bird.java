@@ -137,8 +137,15 @@ public class Bird implements GameObject, Serializable {
         return damage;
     }
 
+    public Bird copy() {
+        Bird copy = new Bird(health, type, levelToUnlock);
+        copy.setX(x);
+        copy.setY(y);
+        copy.setRotation(rotation);
+        return copy;
+    }
+
     public Texture getTexture() {
-        String birdImg = type.name().toLowerCase() + "_bird.png";
-        return AssetManager.getInstance().getTexture(birdImg);
+        return AssetManager.getInstance().getTexture(type.getTextureName());
     }
 }
@@ -3,5 +3,11 @@ package io.github.angrybirdsbox2d;
 import java.io.Serializable;
 
 public enum BirdType implements Serializable {
-    RED, YELLOW, BLACK
+    RED, YELLOW, BLACK;
+
+    private final String textureName = name().toLowerCase() + "_bird.png";
+
+    public String getTextureName() {
+        return textureName;
+    }
 }
@@ -79,5 +79,18 @@ public abstract class Block implements GameObject, Destructible, Serializable {
         return maxHealth;
     }
 
+    public void setHealth(float health) {
+        this.health = health;
+        destructionProgress = 1f - (health / maxHealth);
+    }
+
+    protected <T extends Block> T copyStateTo(T copy) {
+        copy.setHealth(health);
+        copy.setRotation(rotation);
+        return copy;
+    }
+
+    public abstract Block copy();
+
     public abstract String getMaterial();
 }
@@ -0,0 +1,122 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.physics.box2d.World;
+
+import java.util.List;
+
+import static io.github.angrybirdsbox2d.LevelSimulator.PIG_SIZE;
+import static io.github.angrybirdsbox2d.LevelSimulator.toBox2D;
+
+/**
+ * Creates Box2D bodies from a fixed set of prototypes: one body def, one native
+ * shape per object size and one fixture def per material, all built once and reused.
+ * Box2D copies the shape into every fixture it creates, so sharing is safe; the defs
+ * are mutated per call, so a factory must stay on one thread.
+ */
+public class BodyFactory {
+    private final BodyDef bodyDef = new BodyDef();
+    private final PolygonShape blockShape = new PolygonShape();
+    private final CircleShape pigShape = new CircleShape();
+    private final CircleShape birdShape = new CircleShape();
+    private float birdShapeRadius = -1;
+
+    // Indexed by EntityStore kind
+    private final FixtureDef[] blockFixtures = new FixtureDef[EntityStore.KIND_COUNT];
+    private final FixtureDef pigFixture;
+    private final FixtureDef birdFixture;
+    private final FixtureDef aimFixture;
+
+    public BodyFactory() {
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        blockShape.setAsBox(toBox2D(Block.WIDTH/2), toBox2D(Block.HEIGHT/2));
+        pigShape.setRadius(toBox2D(PIG_SIZE/2));
+
+        blockFixtures[EntityStore.WOOD] = fixture(blockShape, 1.0f, 0.9f, 0.2f);
+        blockFixtures[EntityStore.GLASS] = fixture(blockShape, 1.0f, 0.9f, 0.2f);
+        blockFixtures[EntityStore.STEEL] = fixture(blockShape, 1.0f, 0.9f, 0.2f);
+        pigFixture = fixture(pigShape, 1.0f, 0.7f, 0.3f);
+        birdFixture = fixture(birdShape, 3.0f, 0.5f, 0.3f);
+        aimFixture = fixture(birdShape, 1.0f, 0.2f, 0f);
+    }
+
+    private static FixtureDef fixture(Shape shape, float density, float friction, float restitution) {
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.density = density;
+        fixtureDef.friction = friction;
+        fixtureDef.restitution = restitution;
+        return fixtureDef;
+    }
+
+    /** Creates bodies for every block and pig of {@code level} and registers them in {@code entities}. */
+    public void instantiate(World world, LevelSingle level, EntityStore entities) {
+        List<Block> blocks = level.getBlocks();
+        List<Pig> pigs = level.getPigs();
+        entities.ensureCapacity(entities.size() + blocks.size() + pigs.size());
+
+        for (int i = 0; i < blocks.size(); i++) {
+            Block block = blocks.get(i);
+            entities.add(block, createBlock(world, block), Block.WIDTH/2, Block.HEIGHT/2);
+        }
+        for (int i = 0; i < pigs.size(); i++) {
+            Pig pig = pigs.get(i);
+            entities.add(pig, createPig(world, pig), PIG_SIZE/2, PIG_SIZE/2);
+        }
+    }
+
+    public Body createBlock(World world, Block block) {
+        Body body = createBody(world, block.getX() + Block.WIDTH/2, block.getY() + Block.HEIGHT/2, false);
+        body.createFixture(blockFixtures[EntityStore.kindOf(block)]);
+        body.setUserData(block);
+        return body;
+    }
+
+    public Body createPig(World world, Pig pig) {
+        Body body = createBody(world, pig.getX() + PIG_SIZE/2, pig.getY() + PIG_SIZE/2, false);
+        body.createFixture(pigFixture);
+        body.setUserData(pig);
+        return body;
+    }
+
+    /** Launched bird at {@code (x, y)} in pixels, simulated as a bullet. */
+    public Body createBird(World world, Bird bird, float x, float y) {
+        Body body = createBody(world, x, y, true);
+        setBirdRadius(bird.getRadius());
+        body.createFixture(birdFixture);
+        body.setUserData(bird);
+        return body;
+    }
+
+    /** Stand-in body that follows the pull while aiming; it carries no user data. */
+    public Body createAimBody(World world, Bird bird, float x, float y) {
+        Body body = createBody(world, x, y, false);
+        setBirdRadius(bird.getRadius());
+        body.createFixture(aimFixture);
+        return body;
+    }
+
+    private Body createBody(World world, float x, float y, boolean bullet) {
+        bodyDef.position.set(toBox2D(x), toBox2D(y));
+        bodyDef.bullet = bullet;
+        return world.createBody(bodyDef);
+    }
+
+    private void setBirdRadius(float radius) {
+        if (radius != birdShapeRadius) {
+            birdShape.setRadius(toBox2D(radius));
+            birdShapeRadius = radius;
+        }
+    }
+
+    public void dispose() {
+        blockShape.dispose();
+        pigShape.dispose();
+        birdShape.dispose();
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.angrybirdsbox2d;
+
+/**
+ * Fixed-capacity ring buffer of contact events stored as primitives: the two
+ * entity slots involved and the normal impulse Box2D resolved between them.
+ * A slot of -1 stands for a body that is not in the {@link EntityStore}, such as the ground.
+ */
+public class ContactBuffer {
+    private final int[] slotA;
+    private final int[] slotB;
+    private final float[] impulse;
+    private int head;
+    private int count;
+
+    public ContactBuffer(int capacity) {
+        slotA = new int[capacity];
+        slotB = new int[capacity];
+        impulse = new float[capacity];
+    }
+
+    /** Returns false without recording anything when the buffer is full. */
+    public boolean push(int a, int b, float normalImpulse) {
+        if (count == impulse.length) return false;
+        int tail = (head + count) % impulse.length;
+        slotA[tail] = a;
+        slotB[tail] = b;
+        impulse[tail] = normalImpulse;
+        count++;
+        return true;
+    }
+
+    public int getSlotA() {
+        return slotA[head];
+    }
+
+    public int getSlotB() {
+        return slotB[head];
+    }
+
+    public float getImpulse() {
+        return impulse[head];
+    }
+
+    /** Drops the event at the head; read it with the getters first. */
+    public void pop() {
+        head = (head + 1) % impulse.length;
+        count--;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int capacity() {
+        return impulse.length;
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,308 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Dense, array-backed store of every simulated object. Slot data lives in parallel
+ * primitive arrays so the per-frame physics sync is one linear pass with no boxing
+ * or iterator allocation. Removal swaps the last slot into the hole, so slot
+ * indices are only stable until the next removal.
+ * <p>
+ * Each slot keeps its transform from the last two physics steps so rendering can
+ * blend between them when the frame rate and the step rate don't line up. A
+ * {@link SpatialGrid} over slot centres is kept current as transforms are set, so
+ * drawing can ask for just the slots on screen.
+ */
+public class EntityStore implements RenderState {
+    public static final int BIRD = 0;
+    public static final int PIG = 1;
+    public static final int WOOD = 2;
+    public static final int GLASS = 3;
+    public static final int STEEL = 4;
+    public static final int KIND_COUNT = 5;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final float GRID_CELL_SIZE = 128f;
+    // A box rotated 45 degrees reaches this much further than its half-size
+    private static final float ROTATED_REACH = 1.4143f;
+
+    private GameObject[] objects;
+    private Body[] bodies;
+    private int[] kinds;
+    private float[] x;
+    private float[] y;
+    private float[] rotation;
+    private float[] prevX;
+    private float[] prevY;
+    private float[] prevRotation;
+    private float[] halfWidth;
+    private float[] halfHeight;
+    private int size;
+    private boolean syncObjects = true;
+    private final ObjectIntMap<GameObject> slots = new ObjectIntMap<>();
+    private final SpatialGrid grid = new SpatialGrid(GRID_CELL_SIZE);
+
+    public EntityStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public EntityStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        objects = new GameObject[capacity];
+        bodies = new Body[capacity];
+        kinds = new int[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        rotation = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        prevRotation = new float[capacity];
+        halfWidth = new float[capacity];
+        halfHeight = new float[capacity];
+    }
+
+    public static int kindOf(GameObject obj) {
+        if (obj instanceof Bird) return BIRD;
+        if (obj instanceof Pig) return PIG;
+        if (obj instanceof GlassBlock) return GLASS;
+        if (obj instanceof SteelBlock) return STEEL;
+        return WOOD;
+    }
+
+    public static boolean isBlock(int kind) {
+        return kind >= WOOD;
+    }
+
+    public int add(GameObject obj, Body body, float halfW, float halfH) {
+        if (size == objects.length) {
+            grow(size * 2);
+        }
+        int slot = size++;
+        objects[slot] = obj;
+        bodies[slot] = body;
+        kinds[slot] = kindOf(obj);
+        halfWidth[slot] = halfW;
+        halfHeight[slot] = halfH;
+        slots.put(obj, slot);
+
+        Vector2 position = body.getPosition();
+        float centerX = LevelSimulator.toPixels(position.x);
+        float centerY = LevelSimulator.toPixels(position.y);
+        grid.insert(slot, centerX, centerY, Math.max(halfW, halfH) * ROTATED_REACH);
+        setTransform(slot, centerX, centerY, body.getAngle() * MathUtils.radiansToDegrees);
+        prevX[slot] = x[slot];
+        prevY[slot] = y[slot];
+        prevRotation[slot] = rotation[slot];
+        return slot;
+    }
+
+    public int indexOf(GameObject obj) {
+        return slots.get(obj, -1);
+    }
+
+    /** Removes {@code obj} and returns its body, or null if it was not stored. */
+    public Body remove(GameObject obj) {
+        int slot = indexOf(obj);
+        if (slot < 0) return null;
+        Body body = bodies[slot];
+        removeAt(slot);
+        return body;
+    }
+
+    public void removeAt(int slot) {
+        int last = --size;
+        slots.remove(objects[slot], -1);
+        grid.remove(slot);
+        if (slot != last) {
+            grid.rename(last, slot);
+            objects[slot] = objects[last];
+            bodies[slot] = bodies[last];
+            kinds[slot] = kinds[last];
+            x[slot] = x[last];
+            y[slot] = y[last];
+            rotation[slot] = rotation[last];
+            prevX[slot] = prevX[last];
+            prevY[slot] = prevY[last];
+            prevRotation[slot] = prevRotation[last];
+            halfWidth[slot] = halfWidth[last];
+            halfHeight[slot] = halfHeight[last];
+            slots.put(objects[slot], slot);
+        }
+        objects[last] = null;
+        bodies[last] = null;
+    }
+
+    /**
+     * Stores a body centre (pixels) and angle (degrees) for {@code slot} and, unless
+     * switched off, mirrors the resulting lower-left corner onto the game object, which
+     * is what saving and body creation read.
+     */
+    public void setTransform(int slot, float centerX, float centerY, float degrees) {
+        float left = centerX - halfWidth[slot];
+        float bottom = centerY - halfHeight[slot];
+        x[slot] = left;
+        y[slot] = bottom;
+        rotation[slot] = degrees;
+        grid.update(slot, centerX, centerY);
+
+        if (syncObjects) {
+            GameObject obj = objects[slot];
+            obj.setX(left);
+            obj.setY(bottom);
+            obj.setRotation(degrees);
+        }
+    }
+
+    /**
+     * Turns mirroring transforms onto game objects off or on. Switched off while a
+     * {@link SimulationThread} owns the world, so objects other threads may hold are
+     * left alone; switching it back on copies the current transforms across.
+     */
+    public void setSyncObjects(boolean sync) {
+        syncObjects = sync;
+        if (sync) {
+            for (int slot = 0; slot < size; slot++) {
+                GameObject obj = objects[slot];
+                obj.setX(x[slot]);
+                obj.setY(y[slot]);
+                obj.setRotation(rotation[slot]);
+            }
+        }
+    }
+
+    /** Keeps the current transforms as the previous ones; call right before a physics step. */
+    public void savePrevious() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+        System.arraycopy(rotation, 0, prevRotation, 0, size);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            objects[i] = null;
+            bodies[i] = null;
+        }
+        size = 0;
+        slots.clear();
+        grid.clear();
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > objects.length) {
+            grow(Math.max(capacity, objects.length * 2));
+        }
+    }
+
+    private void grow(int capacity) {
+        GameObject[] newObjects = new GameObject[capacity];
+        Body[] newBodies = new Body[capacity];
+        System.arraycopy(objects, 0, newObjects, 0, size);
+        System.arraycopy(bodies, 0, newBodies, 0, size);
+        objects = newObjects;
+        bodies = newBodies;
+        kinds = copyOf(kinds, capacity);
+        x = copyOf(x, capacity);
+        y = copyOf(y, capacity);
+        rotation = copyOf(rotation, capacity);
+        prevX = copyOf(prevX, capacity);
+        prevY = copyOf(prevY, capacity);
+        prevRotation = copyOf(prevRotation, capacity);
+        halfWidth = copyOf(halfWidth, capacity);
+        halfHeight = copyOf(halfHeight, capacity);
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, capacity));
+        return copy;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, capacity));
+        return copy;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public GameObject getObject(int slot) {
+        return objects[slot];
+    }
+
+    public Body getBody(int slot) {
+        return bodies[slot];
+    }
+
+    @Override
+    public int getKind(int slot) {
+        return kinds[slot];
+    }
+
+    @Override
+    public int getType(int slot) {
+        if (kinds[slot] == PIG) return ((Pig) objects[slot]).getPigType().ordinal();
+        if (kinds[slot] == BIRD) return ((Bird) objects[slot]).getBirdType().ordinal();
+        return 0;
+    }
+
+    public float getX(int slot) {
+        return x[slot];
+    }
+
+    public float getY(int slot) {
+        return y[slot];
+    }
+
+    public float getRotation(int slot) {
+        return rotation[slot];
+    }
+
+    /** Lower-left x blended between the last two steps; {@code alpha} runs from 0 (previous) to 1 (current). */
+    @Override
+    public float getInterpolatedX(int slot, float alpha) {
+        return prevX[slot] + (x[slot] - prevX[slot]) * alpha;
+    }
+
+    @Override
+    public float getInterpolatedY(int slot, float alpha) {
+        return prevY[slot] + (y[slot] - prevY[slot]) * alpha;
+    }
+
+    @Override
+    public float getInterpolatedRotation(int slot, float alpha) {
+        return prevRotation[slot] + (rotation[slot] - prevRotation[slot]) * alpha;
+    }
+
+    @Override
+    public float getHealthFraction(int slot) {
+        if (kinds[slot] == PIG) {
+            Pig pig = (Pig) objects[slot];
+            return (float) pig.getHp() / pig.getMaxHealth();
+        }
+        if (isBlock(kinds[slot])) {
+            Block block = (Block) objects[slot];
+            return block.getHealth() / block.getMaxHealth();
+        }
+        return 1f;
+    }
+
+    @Override
+    public void collectVisible(float minX, float minY, float maxX, float maxY, IntArray out) {
+        grid.query(minX, minY, maxX, maxY, out);
+    }
+
+    public float getHalfWidth(int slot) {
+        return halfWidth[slot];
+    }
+
+    public float getHalfHeight(int slot) {
+        return halfHeight[slot];
+    }
+}
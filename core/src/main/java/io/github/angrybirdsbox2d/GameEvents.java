@@ -0,0 +1,158 @@
+package io.github.angrybirdsbox2d;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder events for the game loop, physics and save I/O. Start a
+ * recording with {@code -XX:StartFlightRecording} and look for the "Angry Birds"
+ * category. The begin helpers return null while an event type is not being
+ * recorded, so an unprofiled game allocates nothing for them.
+ */
+public final class GameEvents {
+    public static final String PHASE_PHYSICS = "physics";
+    public static final String PHASE_UPDATE = "update";
+    public static final String PHASE_DESTROY_QUEUE = "destroy queue";
+    public static final String PHASE_BATCH_DRAW = "batch draw";
+    public static final String PHASE_STAGE_DRAW = "stage draw";
+
+    public static final String IO_SAVE = "save";
+    public static final String IO_LOAD = "load";
+    public static final String IO_SLOT_INFO = "slot info";
+
+    private static final String CATEGORY = "Angry Birds";
+
+    @Name("angrybirds.FramePhase")
+    @Label("Frame Phase")
+    @Category(CATEGORY)
+    @Description("One phase of GameScreen.render")
+    public static final class FramePhase extends Event {
+        @Label("Phase")
+        String phase;
+        @Label("Frame")
+        @Description("Frame id, or the physics step for phases run inside the simulator")
+        long frame;
+    }
+
+    @Name("angrybirds.PhysicsStep")
+    @Label("Physics Step")
+    @Category(CATEGORY)
+    @Description("One fixed step of the Box2D world, including damage and object sync")
+    public static final class PhysicsStep extends Event {
+        @Label("Step")
+        long step;
+        @Label("Bodies")
+        int bodies;
+        @Label("Contacts")
+        int contacts;
+        @Label("Awake Bodies")
+        int awakeBodies;
+    }
+
+    @Name("angrybirds.SaveIo")
+    @Label("Save I/O")
+    @Category(CATEGORY)
+    @Description("Reading or writing a save slot")
+    public static final class SaveIo extends Event {
+        @Label("Operation")
+        String operation;
+        @Label("Slot")
+        int slot;
+        @Label("Size")
+        @DataAmount
+        long bytes;
+    }
+
+    @Name("angrybirds.LevelBuild")
+    @Label("Level Build")
+    @Category(CATEGORY)
+    @Description("Constructing a level layout")
+    public static final class LevelBuild extends Event {
+        @Label("Level")
+        int level;
+        @Label("Blocks")
+        int blocks;
+        @Label("Pigs")
+        int pigs;
+        @Label("Birds")
+        int birds;
+    }
+
+    private static final EventType FRAME_PHASE = EventType.getEventType(FramePhase.class);
+    private static final EventType PHYSICS_STEP = EventType.getEventType(PhysicsStep.class);
+    private static final EventType SAVE_IO = EventType.getEventType(SaveIo.class);
+    private static final EventType LEVEL_BUILD = EventType.getEventType(LevelBuild.class);
+
+    private GameEvents() {}
+
+    /** Starts timing {@code phase} of frame {@code frame}; pass the result to {@link #end(FramePhase)}. */
+    public static FramePhase beginPhase(String phase, long frame) {
+        if (!FRAME_PHASE.isEnabled()) return null;
+        FramePhase event = new FramePhase();
+        event.phase = phase;
+        event.frame = frame;
+        event.begin();
+        return event;
+    }
+
+    public static void end(FramePhase event) {
+        if (event != null) {
+            event.commit();
+        }
+    }
+
+    public static PhysicsStep beginStep() {
+        if (!PHYSICS_STEP.isEnabled()) return null;
+        PhysicsStep event = new PhysicsStep();
+        event.begin();
+        return event;
+    }
+
+    public static void end(PhysicsStep event, long step, int bodies, int contacts, int awakeBodies) {
+        if (event == null) return;
+        event.end();
+        if (event.shouldCommit()) {
+            event.step = step;
+            event.bodies = bodies;
+            event.contacts = contacts;
+            event.awakeBodies = awakeBodies;
+            event.commit();
+        }
+    }
+
+    public static SaveIo beginSaveIo(String operation, int slot) {
+        if (!SAVE_IO.isEnabled()) return null;
+        SaveIo event = new SaveIo();
+        event.operation = operation;
+        event.slot = slot;
+        event.begin();
+        return event;
+    }
+
+    public static void end(SaveIo event, long bytes) {
+        if (event == null) return;
+        event.bytes = bytes;
+        event.commit();
+    }
+
+    public static LevelBuild beginLevelBuild(int level) {
+        if (!LEVEL_BUILD.isEnabled()) return null;
+        LevelBuild event = new LevelBuild();
+        event.level = level;
+        event.begin();
+        return event;
+    }
+
+    public static void end(LevelBuild event, int blocks, int pigs, int birds) {
+        if (event == null) return;
+        event.blocks = blocks;
+        event.pigs = pigs;
+        event.birds = birds;
+        event.commit();
+    }
+}
@@ -11,14 +11,22 @@ public class GameSaveData implements Serializable {
     private final List<LevelSingle> levelsList;
     private final Date saveDate;
     private final int currentLevelNumber;
+    // Live physics state of the current level when saved mid-level, or null
+    private transient WorldCheckpoint liveState;
 
     public GameSaveData(List<LevelSingle> levels, int currentLevel) {
+        this(levels, currentLevel, new Date());  // Current date/time
+    }
+
+    GameSaveData(List<LevelSingle> levels, int currentLevel, Date saveDate) {
         this.levelsList = new ArrayList<>(levels);  // Create copy of levels
         this.currentLevelNumber = currentLevel;
-        this.saveDate = new Date();  // Current date/time
+        this.saveDate = saveDate;
     }
 
     public List<LevelSingle> getLevelsList() { return levelsList; }
     public Date getSaveDate() { return saveDate; }
     public int getCurrentLevelNumber() { return currentLevelNumber; }
+    public WorldCheckpoint getLiveState() { return liveState; }
+    public void setLiveState(WorldCheckpoint liveState) { this.liveState = liveState; }
 }
@@ -1,15 +1,17 @@
 package io.github.angrybirdsbox2d;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.InputProcessor;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -18,45 +20,56 @@ import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
+import java.text.SimpleDateFormat;
 import java.util.*;
 
 public class GameScreen implements Screen, InputProcessor {
     private final AngryBirdsGame game;
     private LevelSingle currentLevel;
     private Texture backgroundImg;
-    private Texture slingBackImg;
-    private Texture slingFrontImg;
-    private float slingX, slingY, slingW, slingH;
-    private static final float PIG_SIZE = 35f;
-    private static final float SLING_SCALE = 0.07f;
-    private static final float BIRD_SCALE = 0.8f;
-    private static final float LAUNCH_SPEED_MULTIPLIER = 7f;
-    private static final float PPM = 100f;
-    private static final float MAX_DRAG_DISTANCE = 100f;
-    private static final float RUBBER_BAND_TENSION = 0.8f;
-    private static final int TRAJECTORY_POINTS = 20;
-    private static final float TIME_STEP = 1/60f;
-    private static final int VELOCITY_ITERATIONS = 6;
-    private static final int POSITION_ITERATIONS = 2;
-    private static final float GRAVITY=-9.81f/6f;
-    private static final float GROUND_HEIGHT = Gdx.graphics.getHeight() * 0.132f;
-
-
+    private TextureRegion slingBackImg;
+    private TextureRegion slingFrontImg;
+    // Sprite regions resolved once per object type, indexed by kind or enum ordinal
+    private final TextureRegion[] blockRegions = new TextureRegion[EntityStore.KIND_COUNT];
+    private final TextureRegion[] pigRegions = new TextureRegion[PigType.values().length];
+    private final TextureRegion[] birdRegions = new TextureRegion[BirdType.values().length];
+    private static final float SLING_SCALE = LevelSimulator.SLING_SCALE;
+    private static final float PPM = LevelSimulator.PPM;
+
+    /** Steps Box2D on its own thread and renders from published snapshots; -Dangrybirds.threadedPhysics=true */
+    public static boolean threadedPhysics = Boolean.getBoolean("angrybirds.threadedPhysics");
+    /** Initial state of the F3 performance overlay; -Dangrybirds.perfHud=true */
+    public static boolean showPerfHud = Boolean.getBoolean("angrybirds.perfHud");
+    /** Initial state of the F4 Box2D debug overlay; -Dangrybirds.debugDraw=true */
+    public static boolean debugDraw = Boolean.getBoolean("angrybirds.debugDraw");
+    /** Records each level session under replays/ for support; off unless -Dangrybirds.recordReplays=true */
+    public static boolean recordReplays = Boolean.getBoolean("angrybirds.recordReplays");
+    private static final int REPLAYS_KEPT = 20;
+
+    private LevelSimulator simulator;
     private World physicsWorld;
     private Box2DDebugRenderer debugRenderer;
-    private final Map<GameObject, Body> bodyMap;
+    private final Matrix4 debugMatrix = new Matrix4();
+    private PerfHud perfHud;
     private float accumulator = 0;
-    private Body tempBirdBody;
-
-    private Vector2 slingAnchor;
-    private Vector2 dragStart;
-    private Vector2 currentDrag;
-    private boolean isDragging;
+    private SimulationThread simThread;
+    private int birdsRetiredSeen;
+    // Launches handed to the simulation thread, and whether the last is still unconfirmed
+    private int launchesQueued;
+    private boolean launchPending;
+    private ReplayRecorder recorder;
+    // Set when this screen plays a recording instead of taking input
+    private final Replay replay;
+    private ReplayRunner replayRunner;
+    private final TrajectoryPreview trajectory = new TrajectoryPreview();
+    private final SpriteLayout sprites = new SpriteLayout(64);
+
+    // Touch handling works through the sling in place, so it doesn't allocate
+    private final SlingAim sling = new SlingAim();
     private boolean birdLaunched;
     private boolean birdStopped;
     private boolean gameStarted;
     private boolean gamePaused;
-    private final Set<Body> bodiesToDestroy = new HashSet<>();
     private final boolean levelCompleted = false;
     private final boolean levelWon = false;
     private boolean showingWinLossPopup = false;
@@ -65,219 +78,219 @@ public class GameScreen implements Screen, InputProcessor {
     private Stage mainStage;
     private PauseMenuScreen pauseScreen;
     private ShapeRenderer shapeRenderer;
+    // Background and sling never move, so they're baked once and redrawn from GPU memory
+    private SpriteCache staticLayers;
+    private int backLayer;
+    private int frontLayer;
 
     public GameScreen(AngryBirdsGame game, LevelSingle level) {
+        this(game, level, null);
+    }
+
+    /** Plays back a recorded session; touch input is ignored while it runs. */
+    public GameScreen(AngryBirdsGame game, Replay replay) {
+        this(game, replay.getLevel(), replay);
+    }
+
+    private GameScreen(AngryBirdsGame game, LevelSingle level, Replay replay) {
         this.game = game;
         this.currentLevel = level;
+        this.replay = replay;
         this.gamePaused = false;
         this.gameStarted = false;
-        this.bodyMap = new HashMap<>();
 
+        AssetManager.getInstance().load(AssetManager.GROUP_GAMEPLAY);
         initializeBox2D();
         loadAssets();
         setupGameElements();
+        startSimulationThread();
         setupInput();
     }
 
     private void initializeBox2D() {
-        physicsWorld = new World(new Vector2(0, GRAVITY), true);
+        createSimulator();
         debugRenderer = new Box2DDebugRenderer();
-        setupPhysicsWorld();
-        initializeCollisionListener();
+        perfHud = new PerfHud(showPerfHud);
+    }
+
+    private void createSimulator() {
+        // Play a fresh copy of the layout so the level itself is never consumed
+        if (replay != null) {
+            // Same world size and step as the recording, whatever the window is now
+            simulator = new LevelSimulator(currentLevel.instantiate(replay.getWorldWidth()),
+                replay.getWorldWidth(), replay.getWorldHeight());
+            simulator.setTimeStep(replay.getTimeStep());
+            replayRunner = new ReplayRunner(replay, simulator);
+        } else {
+            simulator = new LevelSimulator(currentLevel.instantiate(Gdx.graphics.getWidth()),
+                Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+            if (recordReplays) {
+                startRecording();
+            }
+        }
+        physicsWorld = simulator.getWorld();
     }
 
-    private void loadAssets() {
-        backgroundImg = AssetManager.getInstance().getTexture("backgroundlevel.png");
-        slingBackImg = AssetManager.getInstance().getTexture("catapult_back.png");
-        slingFrontImg = AssetManager.getInstance().getTexture("catapult_front.png");
+    private void startRecording() {
+        FileHandle dir = Gdx.files.local("replays");
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+        FileHandle file = dir.child("level" + currentLevel.getNumber() + "-" + stamp + ".abr");
+        SaveService io = SaveService.getInstance();
+        recorder = ReplayRecorder.create(file.file().toPath(), simulator.getLevel(),
+            Gdx.graphics.getWidth(), Gdx.graphics.getHeight(), simulator.getTimeStep(), io::execute);
+        simulator.setRecorder(recorder);
+        io.execute(() -> pruneReplays(dir));
     }
 
-    private void setupGameElements() {
-        setupSling();
-        createGameUI();
-        shapeRenderer = new ShapeRenderer();
+    // Timestamped names sort oldest first
+    private static void pruneReplays(FileHandle dir) {
+        FileHandle[] files = dir.list(".abr");
+        Arrays.sort(files, Comparator.comparing(FileHandle::name));
+        for (int i = 0; i < files.length - REPLAYS_KEPT; i++) {
+            files[i].delete();
+        }
     }
 
-    private void setupSling() {
-        slingW = Gdx.graphics.getHeight() * SLING_SCALE;
-        slingH = slingW * slingBackImg.getHeight() / slingBackImg.getWidth();
-        slingX = Gdx.graphics.getWidth() * 0.1f;
-        slingY = Gdx.graphics.getHeight() * 0.132f;
-        slingAnchor = new Vector2(slingX + slingW * 0.6f, slingY + slingH * 0.6f);
+    private void stopRecording() {
+        if (recorder != null) {
+            simulator.setRecorder(null);
+            recorder.close();
+            recorder = null;
+        }
     }
 
-    private void setupInput() {
-        InputMultiplexer inputMultiplexer = new InputMultiplexer();
-        inputMultiplexer.addProcessor(this);
-        inputMultiplexer.addProcessor(mainStage);
-        Gdx.input.setInputProcessor(inputMultiplexer);
+    private void startSimulationThread() {
+        birdsRetiredSeen = 0;
+        if (launchPending) {
+            // The previous thread may have taken the launch before it stopped
+            birdLaunched = simulator.isBirdInFlight();
+        }
+        launchesQueued = 0;
+        launchPending = false;
+        // A replay feeds its inputs between steps on this thread
+        if (threadedPhysics && replayRunner == null) {
+            simThread = new SimulationThread(simulator);
+            simThread.start();
+        }
     }
 
-    private void setupPhysicsWorld() {
-        BodyDef groundDef = new BodyDef();
-        groundDef.type = BodyDef.BodyType.StaticBody;
-        groundDef.position.set(0, toBox2D(GROUND_HEIGHT));
-
-        Body ground = physicsWorld.createBody(groundDef);
-        PolygonShape groundShape = new PolygonShape();
-        groundShape.setAsBox(toBox2D(Gdx.graphics.getWidth()), toBox2D(5));
+    private void stopSimulationThread() {
+        if (simThread != null) {
+            simThread.stop();
+            simThread = null;
+        }
+    }
 
-        FixtureDef groundFixture = new FixtureDef();
-        groundFixture.shape = groundShape;
-        groundFixture.friction = 0.7f;
-        groundFixture.restitution = 0.1f;
+    // In threaded mode the level lists belong to the simulation thread, so read counts from the snapshot
+    private int birdsLeft() {
+        return simThread != null ? simThread.latest().getBirdCount() : simulator.getLevel().getBirds().size();
+    }
 
-        ground.createFixture(groundFixture);
-        groundShape.dispose();
+    private BirdType birdTypeAt(int index) {
+        return simThread != null ? simThread.latest().getBirdType(index)
+            : simulator.getLevel().getBirds().get(index).getBirdType();
+    }
 
-        createInitialBodies();
+    private int pigsLeft() {
+        return simThread != null ? simThread.latest().getPigCount() : simulator.getLevel().getPigs().size();
     }
 
-    private void createInitialBodies() {
-        for (Block block : currentLevel.getBlocks()) {
-            createBlockBody(block);
+    private boolean retireStoppedBird() {
+        if (replayRunner != null) {
+            // Birds are retired by the recording, not by how long they've been still
+            int retired = replayRunner.getBirdsRetired();
+            if (retired == birdsRetiredSeen) return false;
+            birdsRetiredSeen = retired;
+            return true;
         }
-
-        for (Pig pig : currentLevel.getPigs()) {
-            createPigBody(pig);
+        if (simThread == null) {
+            return simulator.retireStoppedBird();
         }
+        int retired = simThread.latest().getBirdsRetired();
+        if (retired == birdsRetiredSeen) return false;
+        birdsRetiredSeen = retired;
+        return true;
     }
 
-    private void createBlockBody(Block block) {
-        BodyDef bodyDef = new BodyDef();
-        bodyDef.type = BodyDef.BodyType.DynamicBody;
-
-        bodyDef.position.set(
-            toBox2D(block.getX() + Block.WIDTH/2),
-            toBox2D(block.getY() + Block.HEIGHT/2)
-        );
-
-        Body body = physicsWorld.createBody(bodyDef);
-        PolygonShape shape = new PolygonShape();
-        shape.setAsBox(toBox2D(Block.WIDTH/2), toBox2D(Block.HEIGHT/2));
-
-        FixtureDef fixtureDef = new FixtureDef();
-        fixtureDef.shape = shape;
-        fixtureDef.density = 1.0f;
-        fixtureDef.friction = 0.9f;
-        fixtureDef.restitution = 0.2f;
-
-        body.createFixture(fixtureDef);
-        body.setUserData(block);
-        bodyMap.put(block, body);
-        shape.dispose();
-    }
-
-    private void createPigBody(Pig pig) {
-        BodyDef bodyDef = new BodyDef();
-        bodyDef.type = BodyDef.BodyType.DynamicBody;
-        bodyDef.position.set(
-            toBox2D(pig.getX() + PIG_SIZE/2),
-            toBox2D(pig.getY() + PIG_SIZE/2)
-        );
-
-        Body body = physicsWorld.createBody(bodyDef);
-        CircleShape shape = new CircleShape();
-        Vector2 center = new Vector2(-toBox2D(PIG_SIZE/4), -toBox2D(PIG_SIZE/4));
-        shape.setRadius(toBox2D(PIG_SIZE/2));
-
-        FixtureDef fixtureDef = new FixtureDef();
-        fixtureDef.shape = shape;
-        fixtureDef.density = 1.0f;
-        fixtureDef.friction = 0.7f;
-        fixtureDef.restitution = 0.3f;
-
-        body.createFixture(fixtureDef);
-        body.setUserData(pig);
-        bodyMap.put(pig, body);
-        shape.dispose();
+    private RenderState renderState() {
+        return simThread != null ? simThread.latest() : simulator.getEntities();
     }
 
-    private void launchBird() {
-        if (!currentLevel.getBirds().isEmpty() && !birdStopped) {
-            gameStarted = true;
-            Bird currentBird = currentLevel.getBirds().get(0);
-            Vector2 dragVector = currentDrag.cpy().sub(slingAnchor);
-
-            if (dragVector.len() > 0) {
-                float distance = Math.min(dragVector.len(), MAX_DRAG_DISTANCE);
-                dragVector.nor().scl(distance);
-
-                createBirdBody(currentBird, currentDrag);
-                Body birdBody = bodyMap.get(currentBird);
-
-                float launchPower = (distance / MAX_DRAG_DISTANCE) * LAUNCH_SPEED_MULTIPLIER;
-                Vector2 launchVelocity = dragVector.scl(-launchPower);
-
-                birdBody.setLinearVelocity(launchVelocity.x / PPM, launchVelocity.y / PPM);
-                birdBody.setBullet(true);
+    private void loadAssets() {
+        backgroundImg = AssetManager.getInstance().getTexture("backgroundlevel.png");
+        slingBackImg = AssetManager.getInstance().getRegion("catapult_back.png");
+        slingFrontImg = AssetManager.getInstance().getRegion("catapult_front.png");
 
-                birdLaunched = true;
-            }
+        blockRegions[EntityStore.WOOD] = AssetManager.getInstance().getRegion("wood_block.png");
+        blockRegions[EntityStore.GLASS] = AssetManager.getInstance().getRegion("glass_block.png");
+        blockRegions[EntityStore.STEEL] = AssetManager.getInstance().getRegion("steel_block.png");
+        for (PigType type : PigType.values()) {
+            pigRegions[type.ordinal()] = AssetManager.getInstance().getRegion(type.getTextureName());
+        }
+        for (BirdType type : BirdType.values()) {
+            TextureRegion birdImg = AssetManager.getInstance().getRegion(type.getTextureName());
+            birdRegions[type.ordinal()] = birdImg;
+            sprites.setBirdRatio(type, (float) birdImg.getRegionWidth() / birdImg.getRegionHeight());
         }
     }
 
-    private void createBirdBody(Bird bird, Vector2 position) {
-        BodyDef bodyDef = new BodyDef();
-        bodyDef.type = BodyDef.BodyType.DynamicBody;
-        bodyDef.position.set(toBox2D(position.x), toBox2D(position.y));
-        bodyDef.bullet = true;
-
-        Body body = physicsWorld.createBody(bodyDef);
-        CircleShape shape = new CircleShape();
-        shape.setRadius(toBox2D(bird.getRadius()));
-
-        FixtureDef fixtureDef = new FixtureDef();
-        fixtureDef.shape = shape;
-        fixtureDef.density = 3.0f;
-        fixtureDef.friction = 0.5f;
-        fixtureDef.restitution = 0.3f;
-
-        body.createFixture(fixtureDef);
-        body.setUserData(bird);
-        bodyMap.put(bird, body);
-        shape.dispose();
+    private void setupGameElements() {
+        setupSling();
+        createGameUI();
+        shapeRenderer = new ShapeRenderer();
+        staticLayers = new SpriteCache(3, false);
+        buildStaticLayers();
     }
 
+    /** Bakes the layers drawn behind and in front of the dynamic objects; call again after a resize. */
+    private void buildStaticLayers() {
+        staticLayers.clear();
 
+        staticLayers.beginCache();
+        staticLayers.add(new TextureRegion(backgroundImg), 0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        staticLayers.add(slingBackImg, sling.getX(), sling.getY(), sling.getWidth(), sling.getHeight());
+        backLayer = staticLayers.endCache();
 
-    private void initializeCollisionListener() {
-        physicsWorld.setContactListener(new ContactListener() {
-            @Override
-            public void beginContact(Contact contact) {
-                Body bodyA = contact.getFixtureA().getBody();
-                Body bodyB = contact.getFixtureB().getBody();
-                handleCollision(bodyA, bodyB);
-            }
-
-            @Override
-            public void endContact(Contact contact) {}
-
-            @Override
-            public void preSolve(Contact contact, Manifold oldManifold) {}
+        staticLayers.beginCache();
+        staticLayers.add(slingFrontImg, sling.getX(), sling.getY(), sling.getWidth(), sling.getHeight());
+        frontLayer = staticLayers.endCache();
+    }
 
-            @Override
-            public void postSolve(Contact contact, ContactImpulse impulse) {}
-        });
+    private void drawStaticLayer(int layer) {
+        staticLayers.setProjectionMatrix(game.gameBatch.getProjectionMatrix());
+        staticLayers.begin();
+        staticLayers.draw(layer);
+        staticLayers.end();
     }
 
-    private void handleBirdBlockCollision(Object objectA, Object objectB, float impactForce) {
-        if ((objectA instanceof Bird && objectB instanceof Block) ||
-            (objectB instanceof Bird && objectA instanceof Block)) {
-            Bird bird = (Bird)(objectA instanceof Bird ? objectA : objectB);
-            Block block = (Block)(objectA instanceof Block ? objectA : objectB);
+    private void setupSling() {
+        float slingW = Gdx.graphics.getHeight() * SLING_SCALE;
+        float slingH = slingW * slingBackImg.getRegionHeight() / slingBackImg.getRegionWidth();
+        sling.setBounds(Gdx.graphics.getWidth() * 0.1f, Gdx.graphics.getHeight() * 0.132f, slingW, slingH);
+        simulator.setSlingAnchor(sling.getAnchorX(), sling.getAnchorY());
+    }
 
-            float damageMultiplier = impactForce / 20f;  // Changed from 50f
-            int damage = (int)(bird.getDamage() * damageMultiplier);
-            block.takeDamage(damage);
+    private void setupInput() {
+        InputMultiplexer inputMultiplexer = new InputMultiplexer();
+        inputMultiplexer.addProcessor(this);
+        inputMultiplexer.addProcessor(mainStage);
+        Gdx.input.setInputProcessor(inputMultiplexer);
+    }
 
-            if (block.isDestroyed()) {
-                Body blockBody = bodyMap.get(block);
-                if (blockBody != null) {
-                    bodiesToDestroy.add(blockBody);
-                    bodyMap.remove(block);
-                    currentLevel.getBlocks().remove(block);
-                }
+    private void launchBird() {
+        if (birdsLeft() > 0 && !birdStopped) {
+            gameStarted = true;
+            float dragX = sling.getPullX();
+            float dragY = sling.getPullY();
+
+            if (simThread != null) {
+                // The simulator refuses a launch with no pull, so don't wait on one
+                if (dragX == 0 && dragY == 0) return;
+                simThread.launchBird(sling.getDragX(), sling.getDragY(), dragX, dragY);
+                launchesQueued++;
+                launchPending = true;
+            } else if (simulator.launchBird(sling.getDragX(), sling.getDragY(), dragX, dragY)) {
+                birdLaunched = true;
             }
         }
     }
@@ -285,24 +298,21 @@ public class GameScreen implements Screen, InputProcessor {
     private void resetForNextBird() {
         birdLaunched = false;
         birdStopped = false;
-        isDragging = false;
+        sling.release();
         gameStarted = false;
     }
 
     private void checkLevelCompletion() {
         if (!showingWinLossPopup) {
-            boolean noMorePigs = currentLevel.getPigs().isEmpty();
+            boolean noMorePigs = pigsLeft() == 0;
             if (noMorePigs) {
                 int stars = calculateStars();
-                currentLevel.setRating(stars);
-                if (stars >= 2) {
-                    LevelsScreen.unlockNextLevel(currentLevel.getNumber());
-                }
+                recordResult(stars);
 
                 showingWinLossPopup = true;
                 gamePaused = true;
                 pauseScreen.showWinLoss(true, stars);
-            } else if (!birdLaunched && currentLevel.getBirds().isEmpty()) {
+            } else if (!birdLaunched && birdsLeft() == 0) {
                 // Only show loss if we have no more birds to launch AND pigs still exist
                 showingWinLossPopup = true;
                 gamePaused = true;
@@ -311,52 +321,47 @@ public class GameScreen implements Screen, InputProcessor {
         }
     }
 
+    // Watching a replay leaves the player's progress alone
+    private void recordResult(int stars) {
+        if (replayRunner != null) return;
+        currentLevel.setRating(stars);
+        if (stars >= 2) {
+            LevelsScreen.unlockNextLevel(currentLevel.getNumber());
+        }
+    }
+
     private int calculateStars() {
         int totalBirdsAtStart = LevelsScreen.getAvailableBirdsForLevel(currentLevel.getNumber()).size();
-        int birdsUsed = totalBirdsAtStart - currentLevel.getBirds().size();
-
-        // Base score on birds used
-        int stars = 3;
-
-        // Deduct stars based on birds used
-        if (birdsUsed > 1) stars--;
-        if (birdsUsed > 2) stars--;
-
-        return Math.max(1, stars);  // Ensure at least 1 star for completing level
+        int birdsUsed = totalBirdsAtStart - birdsLeft();
+        return LevelSimulator.starsForBirdsUsed(birdsUsed);
     }
 
     @Override
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
-        Vector2 touchPos = new Vector2(screenX, Gdx.graphics.getHeight() - screenY);
+        if (replayRunner != null) return false;
+        // Tapping while a BLACK bird is in flight sets it off
+        if (birdLaunched && birdsLeft() > 0 && birdTypeAt(0) == BirdType.BLACK) {
+            if (simThread != null) {
+                simThread.detonate();
+            } else {
+                simulator.detonate();
+            }
+            return true;
+        }
 
-        if (!birdLaunched && !currentLevel.getBirds().isEmpty() && isNearSlingshot(touchPos)) {
-            isDragging = true;
-            dragStart = touchPos;
-            currentDrag = touchPos;
+        if (!birdLaunched && !launchPending && birdsLeft() > 0
+            && sling.press(screenX, Gdx.graphics.getHeight() - screenY)) {
             createTempBirdBody();
+            trajectory.invalidate();
             return true;
         }
         return false;
     }
 
-    private boolean isNearSlingshot(Vector2 position) {
-        return position.dst(slingAnchor) < slingW;
-    }
-
     @Override
     public boolean touchDragged(int screenX, int screenY, int pointer) {
-        if (isDragging) {
-            currentDrag = new Vector2(screenX, Gdx.graphics.getHeight() - screenY);
-            Vector2 dragVector = currentDrag.cpy().sub(slingAnchor);
-
-            float dragDistance = dragVector.len();
-            if (dragDistance > MAX_DRAG_DISTANCE) {
-                dragVector.nor().scl(MAX_DRAG_DISTANCE);
-                currentDrag = slingAnchor.cpy().add(dragVector);
-            }
-
-            float tensionFactor = (dragDistance / MAX_DRAG_DISTANCE) * RUBBER_BAND_TENSION;
-            dragVector.scl(1 - tensionFactor);
+        if (sling.isDragging()) {
+            sling.drag(screenX, Gdx.graphics.getHeight() - screenY);
             updateTempBirdPosition();
             return true;
         }
@@ -364,42 +369,29 @@ public class GameScreen implements Screen, InputProcessor {
     }
 
     private void createTempBirdBody() {
-        if (!currentLevel.getBirds().isEmpty()) {
-            Bird currentBird = currentLevel.getBirds().get(0);
-            BodyDef bodyDef = new BodyDef();
-            bodyDef.type = BodyDef.BodyType.DynamicBody;
-            bodyDef.position.set(toBox2D(slingAnchor.x), toBox2D(slingAnchor.y));
-
-            if (tempBirdBody != null) {
-                physicsWorld.destroyBody(tempBirdBody);
-            }
-
-            tempBirdBody = physicsWorld.createBody(bodyDef);
-            CircleShape shape = new CircleShape();
-            shape.setRadius(toBox2D(currentBird.getRadius()));
-
-            FixtureDef fixture = new FixtureDef();
-            fixture.shape = shape;
-            fixture.density = 1.0f;
-
-            tempBirdBody.createFixture(fixture);
-            shape.dispose();
+        if (simThread != null) {
+            simThread.beginAim(sling.getAnchorX(), sling.getAnchorY());
+        } else {
+            simulator.beginAim(sling.getAnchorX(), sling.getAnchorY());
         }
     }
 
     private void updateTempBirdPosition() {
-        if (tempBirdBody != null) {
-            tempBirdBody.setTransform(toBox2D(currentDrag.x), toBox2D(currentDrag.y), 0);
+        if (simThread != null) {
+            simThread.updateAim(sling.getDragX(), sling.getDragY());
+        } else {
+            simulator.updateAim(sling.getDragX(), sling.getDragY());
         }
     }
 
     @Override
     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
-        if (isDragging) {
-            isDragging = false;
-            if (tempBirdBody != null) {
-                physicsWorld.destroyBody(tempBirdBody);
-                tempBirdBody = null;
+        if (sling.isDragging()) {
+            sling.release();
+            if (simThread != null) {
+                simThread.endAim();
+            } else {
+                simulator.endAim();
             }
             launchBird();
             return true;
@@ -408,30 +400,21 @@ public class GameScreen implements Screen, InputProcessor {
     }
 
     public void restartLevel() {
-        // Clear all bodies
-        for (Body body : bodyMap.values()) {
-            physicsWorld.destroyBody(body);
+        // Put the world back to how it was when the level loaded, keeping its bodies
+        stopSimulationThread();
+        simulator.restart();
+        if (replayRunner != null) {
+            replayRunner = new ReplayRunner(replay, simulator);
         }
-        bodyMap.clear();
-
-        // Dispose of old world
-        physicsWorld.dispose();
-
-        // Create new world with same gravity
-        physicsWorld = new World(new Vector2(0, GRAVITY), true);
-
-        // Reset level
-        currentLevel = new LevelSingle(currentLevel.getNumber(), currentLevel.getRating(), currentLevel.isUnlocked());
-
-        // Setup physics again
-        setupPhysicsWorld();
-        initializeCollisionListener();
+        accumulator = 0;
+        trajectory.invalidate();
+        startSimulationThread();
 
         // Reset game states
         gameStarted = false;
         birdLaunched = false;
         birdStopped = false;
-        isDragging = false;
+        sling.release();
         showingWinLossPopup = false;
 
         if (gamePaused) {
@@ -439,27 +422,42 @@ public class GameScreen implements Screen, InputProcessor {
         }
     }
 
+    /** Live physics state for a mid-level save, taken between steps. */
+    public WorldCheckpoint captureLiveState() {
+        if (simThread == null) {
+            return WorldCheckpoint.capture(simulator);
+        }
+        // The world belongs to the simulation thread, so hold it still while copying
+        stopSimulationThread();
+        WorldCheckpoint state = WorldCheckpoint.capture(simulator);
+        startSimulationThread();
+        return state;
+    }
+
+    /** Puts the level back into a state from {@link #captureLiveState()}, bird in flight included. */
+    public void restoreLiveState(WorldCheckpoint state) {
+        stopSimulationThread();
+        // A recording can't start from the middle of a flight, so this session goes unrecorded
+        stopRecording();
+        simulator.restore(state);
+        accumulator = 0;
+        trajectory.invalidate();
+        startSimulationThread();
+
+        birdLaunched = state.hasBirdInFlight();
+        gameStarted = birdLaunched;
+        birdStopped = false;
+        sling.release();
+        showingWinLossPopup = false;
+    }
+
     private void drawSlingBand() {
-        if (!currentLevel.getBirds().isEmpty() && isDragging) {
+        if (birdsLeft() > 0 && sling.isDragging()) {
             shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
             shapeRenderer.setColor(0.4f, 0.2f, 0.1f, 1);
-
-            Vector2 leftAnchor = new Vector2(slingX + slingW * 0.25f, slingY + slingH * 0.75f);
-            Vector2 rightAnchor = new Vector2(slingX + slingW * 0.75f, slingY + slingH * 0.75f);
-            Vector2 controlPoint = currentDrag.cpy().add(0, 10);
-
-            for (int i = -1; i <= 1; i++) {
-                float offset = i * 1.5f;
-                shapeRenderer.rectLine(
-                    leftAnchor.x + offset, leftAnchor.y,
-                    currentDrag.x, currentDrag.y,
-                    3
-                );
-                shapeRenderer.rectLine(
-                    rightAnchor.x + offset, rightAnchor.y,
-                    currentDrag.x, currentDrag.y,
-                    3
-                );
+            for (int i = 0; i < SlingAim.BAND_STRANDS; i++) {
+                shapeRenderer.rectLine(sling.getBandStartX(i), sling.getBandStartY(),
+                    sling.getDragX(), sling.getDragY(), 3);
             }
 
             shapeRenderer.end();
@@ -479,292 +477,147 @@ public class GameScreen implements Screen, InputProcessor {
     }
 
     private void drawTrajectoryPreview() {
-        if (isDragging && currentDrag != null) {
+        if (sling.isDragging()) {
+            // The world belongs to the simulation thread in threaded mode, so the arc isn't clipped there
+            World world = simThread != null ? null : physicsWorld;
+            Body aimBody = simThread != null ? null : simulator.getAimBody();
+            trajectory.update(world, aimBody, sling.getAnchorX(), sling.getAnchorY(),
+                sling.getPullX(), sling.getPullY());
+
             shapeRenderer.begin(ShapeRenderer.ShapeType.Line);
             shapeRenderer.setColor(0f, 0f, 0f, 1f);
-
-            Vector2 dragVector = currentDrag.cpy().sub(slingAnchor);
-            float distance = Math.min(dragVector.len(), MAX_DRAG_DISTANCE);
-            dragVector.nor().scl(-distance);
-
-            float launchPower = (distance / MAX_DRAG_DISTANCE) * LAUNCH_SPEED_MULTIPLIER;
-            Vector2 velocity = dragVector.scl(launchPower / PPM);
-
-            float x = currentDrag.x;
-            float y = currentDrag.y;
-            float dt = 1/60.0f;
-            float gravity =GRAVITY;
-
-            for (int i = 0; i < 100; i++) {
-                float nextX = x + velocity.x * PPM * dt;
-                float nextY = y + velocity.y * PPM * dt;
-
-                shapeRenderer.line(x, y, nextX, nextY);
-
-                x = nextX;
-                y = nextY;
-                velocity.y += gravity * dt;
-
-                if (y < 0) break;
+            for (int i = 1; i < trajectory.getPointCount(); i++) {
+                shapeRenderer.line(trajectory.getX(i - 1), trajectory.getY(i - 1), trajectory.getX(i), trajectory.getY(i));
             }
-            shapeRenderer.end();
-        }
-    }
 
-    private void handleBirdStop() {
-        if (birdLaunched && !currentLevel.getBirds().isEmpty()) {
-            Bird currentBird = currentLevel.getBirds().get(0);
-            Body birdBody = bodyMap.get(currentBird);
-
-            if (birdBody != null) {
-                Vector2 pos = birdBody.getPosition();
-                Vector2 vel = birdBody.getLinearVelocity();
-                boolean offScreen = toPixels(pos.x) < 0 || toPixels(pos.x) > Gdx.graphics.getWidth() ||
-                    toPixels(pos.y) < 0 || toPixels(pos.y) > Gdx.graphics.getHeight();
-                boolean stopped = vel.len() < 0.1f;
-
-                if (offScreen || stopped) {
-                    physicsWorld.destroyBody(birdBody);
-                    bodyMap.remove(currentBird);
-                    currentLevel.getBirds().remove(0);
-                    resetForNextBird();
-                    checkLevelCompletion();
-                    if (currentLevel.getBirds().isEmpty() && currentLevel.getPigs().isEmpty()) {
-                        int stars = calculateStars();
-                        currentLevel.setRating(stars);
-                        if (stars >= 2) {
-                            LevelsScreen.unlockNextLevel(currentLevel.getNumber());
-                        }
-                        showingWinLossPopup = true;
-                        gamePaused = true;
-                        pauseScreen.showWinLoss(true, stars);
-                    } else if (currentLevel.getBirds().isEmpty() && !currentLevel.getPigs().isEmpty()) {
-                        // Lost condition - no more birds but pigs remain
-                        showingWinLossPopup = true;
-                        gamePaused = true;
-                        pauseScreen.showWinLoss(false, 0);
-                    }
+            if (trajectory.hasHit()) {
+                GameObject target = trajectory.getHitObject();
+                if (target instanceof Pig) {
+                    shapeRenderer.setColor(1f, 0f, 0f, 1f);
+                } else if (target instanceof Block) {
+                    shapeRenderer.setColor(1f, 0.8f, 0f, 1f);
+                } else {
+                    shapeRenderer.setColor(0.3f, 0.3f, 0.3f, 1f);
                 }
-            }
-        }
-    }
-
-    // In GameScreen.java, update/add these methods:
-
-    private void handleCollision(Body bodyA, Body bodyB) {
-        if (!gameStarted) return;
-
-        Object userDataA = bodyA.getUserData();
-        Object userDataB = bodyB.getUserData();
-
-        float relativeVelocity = bodyA.getLinearVelocity().sub(bodyB.getLinearVelocity()).len();
-        float impactForce = relativeVelocity * Math.max(bodyA.getMass(), bodyB.getMass());
-
-        // Check for ground collisions first
-        if (handleGroundCollision(userDataA, bodyA, impactForce) ||
-            handleGroundCollision(userDataB, bodyB, impactForce)) {
-            return;
-        }
-
-        handleBirdPigCollision(userDataA, userDataB, impactForce);
-        handleBirdBlockCollision(userDataA, userDataB, impactForce);
-        handleBlockPigCollision(userDataA, userDataB, impactForce);
-    }
-
-
-    private boolean handleGroundCollision(Object userData, Body body, float impactForce) {
-        if (userData instanceof Pig && body.getPosition().y < toBox2D(GROUND_HEIGHT + 10)) {
-            Pig pig = (Pig) userData;
-            // Ground impact damage increases with velocity
-            float damageMultiplier = impactForce / 10f;
-            int groundDamage = (int)(300 * damageMultiplier); // Base ground damage
-            pig.takeDamage(groundDamage);
-
-            checkPigDestruction(pig);
-            return true;
-        }
-        return false;
-    }
-    private void handleBirdPigCollision(Object objectA, Object objectB, float impactForce) {
-        if ((objectA instanceof Bird && objectB instanceof Pig) ||
-            (objectB instanceof Bird && objectA instanceof Pig)) {
-            Bird bird = (Bird)(objectA instanceof Bird ? objectA : objectB);
-            Pig pig = (Pig)(objectA instanceof Pig ? objectA : objectB);
-
-            float damageMultiplier = impactForce / 15f;  // Reduced from previous value
-            int damage = (int)(bird.getDamage() * damageMultiplier);
-            pig.takeDamage(damage);
-
-            if (pig.getHp() <= 0) {
-                Body pigBody = bodyMap.get(pig);
-                if (pigBody != null) {
-                    bodiesToDestroy.add(pigBody);
-                    bodyMap.remove(pig);
-                    currentLevel.getPigs().remove(pig);
+                shapeRenderer.circle(trajectory.getHitX(), trajectory.getHitY(), 6);
+
+                EntityStore entities = simulator.getEntities();
+                int slot = target != null ? entities.indexOf(target) : -1;
+                if (slot >= 0) {
+                    shapeRenderer.rect(entities.getX(slot), entities.getY(slot),
+                        entities.getHalfWidth(slot), entities.getHalfHeight(slot),
+                        entities.getHalfWidth(slot) * 2, entities.getHalfHeight(slot) * 2,
+                        1, 1, entities.getRotation(slot));
                 }
             }
+            shapeRenderer.end();
         }
     }
 
-    private void handleBlockPigCollision(Object objectA, Object objectB, float impactForce) {
-        if ((objectA instanceof Block && objectB instanceof Pig) ||
-            (objectB instanceof Block && objectA instanceof Pig)) {
-
-            Block block = (Block)(objectA instanceof Block ? objectA : objectB);
-            Pig pig = (Pig)(objectA instanceof Pig ? objectA : objectB);
-
-            // Block collision damage based on impact force and block material
-            float damageMultiplier = impactForce / 15f;
-            int baseDamage = 200; // Base damage for block collisions
-
-            // Adjust damage based on block type
-            if (block instanceof SteelBlock) {
-                baseDamage *= 1.5f; // Steel blocks deal more damage
-            } else if (block instanceof GlassBlock) {
-                baseDamage *= 0.8f; // Glass blocks deal less damage
-            }
-
-            int damage = (int)(baseDamage * damageMultiplier);
-            pig.takeDamage(damage);
-
-            checkPigDestruction(pig);
-        }
-    }
-
-    private void checkPigDestruction(Pig pig) {
-        if (pig.getHp() <= 0) {
-            Body pigBody = bodyMap.get(pig);
-            if (pigBody != null) {
-                bodiesToDestroy.add(pigBody);
-                bodyMap.remove(pig);
-                currentLevel.getPigs().remove(pig);
+    private void handleBirdStop() {
+        if (birdLaunched) {
+            if (retireStoppedBird()) {
+                resetForNextBird();
                 checkLevelCompletion();
-            }
-        }
-    }
-
-    // Update drawPigs method to include fading based on health
-    private void drawPigs() {
-        for (Pig pig : currentLevel.getPigs()) {
-            Texture pigImg = pig.getTexture();
-
-            // Calculate alpha based on health percentage
-            float healthPercentage = (float)pig.getHp() / pig.getMaxHealth();
-            float alpha = Math.max(0.3f, healthPercentage); // Minimum alpha of 0.3
-
-            game.gameBatch.setColor(1, 1, 1, alpha);
-            game.gameBatch.draw(pigImg,
-                pig.getX(), pig.getY(),            // Position
-                PIG_SIZE/2, PIG_SIZE/2,            // Origin
-                PIG_SIZE, PIG_SIZE,                // Size
-                1, 1,                              // Scale
-                pig.getRotation(),                 // Rotation angle
-                0, 0,                              // Source rectangle position
-                pigImg.getWidth(),                 // Source rectangle width
-                pigImg.getHeight(),                // Source rectangle height
-                false, false);                     // Flip horizontally/vertically
-        }
-        game.gameBatch.setColor(1, 1, 1, 1); // Reset color
-    }
-
-    // Add new method to check for ground collision
-    private void checkPigGroundCollision(Pig pig, float velocityY) {
-        if (velocityY < -5f) {  // If pig hits ground with significant force
-            pig.takeDamage(100);  // Direct damage from ground impact
-
-            if (pig.getHp() <= 0) {
-                Body pigBody = bodyMap.get(pig);
-                if (pigBody != null) {
-                    bodiesToDestroy.add(pigBody);
-                    bodyMap.remove(pig);
-                    currentLevel.getPigs().remove(pig);
+                if (birdsLeft() == 0 && pigsLeft() == 0) {
+                    int stars = calculateStars();
+                    recordResult(stars);
+                    showingWinLossPopup = true;
+                    gamePaused = true;
+                    pauseScreen.showWinLoss(true, stars);
+                } else if (birdsLeft() == 0 && pigsLeft() > 0) {
+                    // Lost condition - no more birds but pigs remain
+                    showingWinLossPopup = true;
+                    gamePaused = true;
+                    pauseScreen.showWinLoss(false, 0);
                 }
             }
         }
     }
 
     private void updateGameObjects() {
-        handleBirdStop();
-        Map<GameObject, Body> bodyMapCopy = new HashMap<>(bodyMap);
-
-        for (Map.Entry<GameObject, Body> entry : bodyMapCopy.entrySet()) {
-            GameObject obj = entry.getKey();
-            Body body = entry.getValue();
-
-            if (body.isActive()) {
-                Vector2 position = body.getPosition();
-                float angle = body.getAngle() * MathUtils.radiansToDegrees; // Convert radians to degrees
-
-                // Update rotation for all game objects
-                obj.setRotation(angle);
-
-                if (obj instanceof Pig) {
-                    boolean offScreen = toPixels(position.x) < -50 ||
-                        toPixels(position.x) > Gdx.graphics.getWidth() + 50 ||
-                        toPixels(position.y) < -50 ||
-                        toPixels(position.y) > Gdx.graphics.getHeight() + 50;
-
-                    if (offScreen) {
-                        physicsWorld.destroyBody(body);
-                        bodyMap.remove(obj);
-                        currentLevel.getPigs().remove(obj);
-                        checkLevelCompletion();
-                        continue;
-                    }
-                    obj.setX(toPixels(position.x) - PIG_SIZE/2);
-                    obj.setY(toPixels(position.y) - PIG_SIZE/2);
-                }
-                else if (obj instanceof Block) {
-                    obj.setX(toPixels(position.x) - Block.WIDTH/2);
-                    obj.setY(toPixels(position.y) - Block.HEIGHT/2);
-                } else if (obj instanceof Bird) {
-                    obj.setX(toPixels(position.x) - ((Bird) obj).getRadius());
-                    obj.setY(toPixels(position.y) - ((Bird) obj).getRadius());
-                }
+        if (replayRunner != null && simulator.isBirdInFlight()) {
+            birdLaunched = true;
+        }
+        if (launchPending) {
+            // The bird only counts as launched once the simulation thread has accepted it
+            WorldSnapshot snapshot = simThread.latest();
+            if (snapshot.getLaunchesHandled() == launchesQueued) {
+                launchPending = false;
+                birdLaunched = snapshot.isLastLaunchAccepted();
             }
         }
+        handleBirdStop();
+        checkLevelCompletion();
     }
 
     public LevelSingle getCurrentLevel() {
         return currentLevel;
     }
 
-    private void destroyQueuedBodies() {
-        for (Body body : bodiesToDestroy) {
-            physicsWorld.destroyBody(body);
-        }
-        bodiesToDestroy.clear();
-    }
-
     @Override
     public void render(float delta) {
         clearBackground();
 
+        if (simThread != null) {
+            simThread.setPaused(gamePaused);
+        }
+        long frame = Gdx.graphics.getFrameId();
+        long physicsStart = System.nanoTime();
+        long updateStart = physicsStart;
         if (!gamePaused) {
-            doPhysicsStep(delta);
+            if (simThread == null) {
+                GameEvents.FramePhase physics = GameEvents.beginPhase(GameEvents.PHASE_PHYSICS, frame);
+                doPhysicsStep(delta);
+                GameEvents.end(physics);
+            }
+            updateStart = System.nanoTime();
+            GameEvents.FramePhase update = GameEvents.beginPhase(GameEvents.PHASE_UPDATE, frame);
             updateGameObjects();
-            destroyQueuedBodies();
+            GameEvents.end(update);
         }
 
         // Always render game state
+        long drawStart = System.nanoTime();
+        GameEvents.FramePhase batchDraw = GameEvents.beginPhase(GameEvents.PHASE_BATCH_DRAW, frame);
+        drawStaticLayer(backLayer);
         game.gameBatch.begin();
-        drawBackground();
-        drawSlingBack();
-        drawBirds();
-        drawBlocks();
-        drawPigs();
-        drawSlingFront();
+        // How far we are between the last two physics steps
+        RenderState state = renderState();
+        float blend = accumulator / simulator.getTimeStep();
+        if (simThread != null) {
+            WorldSnapshot snapshot = simThread.latest();
+            float sincePublish = (System.nanoTime() - snapshot.getPublishNanos()) / 1e9f;
+            blend = Math.min(1f, sincePublish / snapshot.getTimeStep());
+        }
+        layoutSprites(state, blend);
+        drawSprites();
         game.gameBatch.end();
+        drawStaticLayer(frontLayer);
 
-        if (isDragging) {
+        if (sling.isDragging()) {
             drawSlingBand();
             drawTrajectoryPreview();
         }
 
-        debugRenderer.render(physicsWorld, game.gameBatch.getProjectionMatrix().cpy().scale(PPM, PPM, 1));
+        // The world can't be read from here while the simulation thread owns it
+        if (debugDraw && simThread == null) {
+            debugMatrix.set(game.gameBatch.getProjectionMatrix()).scale(PPM, PPM, 1);
+            debugRenderer.render(physicsWorld, debugMatrix);
+        }
+        GameEvents.end(batchDraw);
 
+        GameEvents.FramePhase stageDraw = GameEvents.beginPhase(GameEvents.PHASE_STAGE_DRAW, frame);
         mainStage.act(delta);
         mainStage.draw();
+        GameEvents.end(stageDraw);
+        long drawEnd = System.nanoTime();
+
+        if (perfHud.isVisible()) {
+            updatePerfHud();
+        }
+        perfHud.frame(delta, updateStart - physicsStart, drawStart - updateStart, drawEnd - drawStart);
+        perfHud.draw(game.gameBatch, Gdx.graphics.getHeight());
 
         // Draw pause screen or win/loss popup on top
         if (gamePaused) {
@@ -772,6 +625,17 @@ public class GameScreen implements Screen, InputProcessor {
         }
     }
 
+    private void updatePerfHud() {
+        if (simThread != null) {
+            WorldSnapshot snapshot = simThread.latest();
+            perfHud.setWorldStats(snapshot.getStepNanos(), snapshot.size(),
+                snapshot.getContactCount(), snapshot.getAwakeBodyCount());
+        } else {
+            perfHud.setWorldStats(simulator.getLastStepNanos(), simulator.getBodyCount(),
+                physicsWorld.getContactCount(), simulator.getAwakeBodyCount());
+        }
+    }
+
     public void togglePause() {
         gamePaused = !gamePaused;
         if (gamePaused) {
@@ -809,78 +673,42 @@ public class GameScreen implements Screen, InputProcessor {
         });
         mainStage.addActor(pauseBtn);
     }
-    private void drawBackground() {
-        float width = Gdx.graphics.getWidth();
-        float height = Gdx.graphics.getHeight();
-        game.gameBatch.draw(backgroundImg, 0, 0, width, height);
-    }
-
-    private void drawSlingBack() {
-        game.gameBatch.draw(slingBackImg, slingX, slingY, slingW, slingH);
-    }
-
-    private void drawSlingFront() {
-        game.gameBatch.draw(slingFrontImg, slingX, slingY, slingW, slingH);
-    }
-
-    private void drawBirds() {
-        List<Bird> birds = currentLevel.getBirds();
-        if (!birds.isEmpty()) {
-            Bird mainBird = birds.get(0);
-            float birdSize = slingW * BIRD_SCALE;
-
-            if (birdLaunched) {
-                drawBird(mainBird, mainBird.getX(), mainBird.getY(), birdSize);
-            } else if (isDragging && currentDrag != null) {
-                drawBird(mainBird, currentDrag.x - birdSize * 0.5f, currentDrag.y - birdSize * 0.5f, birdSize);
-            } else {
-                drawBird(mainBird, slingX + slingW * 0.6f - birdSize * 0.5f, slingY + slingH * 0.6f, birdSize);
-            }
-
-            for (int i = 1; i < birds.size(); i++) {
-                Bird waitingBird = birds.get(i);
-                float waitX = slingX - (i * (birdSize * 1.2f));
-                drawBird(waitingBird, waitX, slingY, birdSize);
+    private void layoutSprites(RenderState state, float blend) {
+        sprites.clear();
+        int birdCount = birdsLeft();
+        if (birdCount > 0) {
+            sprites.addNextBird(state, blend, sling, birdTypeAt(0), birdLaunched);
+            for (int i = 1; i < birdCount; i++) {
+                sprites.addWaitingBird(sling, birdTypeAt(i), i);
             }
         }
+        // Only blocks and pigs inside the view are submitted to the batch
+        sprites.addBlocksAndPigs(state, blend, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
     }
 
-    private void drawBird(Bird bird, float x, float y, float size) {
-        Texture birdImg = bird.getTexture();
-        float ratio = (float) birdImg.getWidth() / birdImg.getHeight();
-
-        game.gameBatch.draw(birdImg,
-            x, y,
-            size/2, size/(2*ratio),
-            size, size/ratio,
-            1, 1,
-            bird.getRotation(),
-            0, 0,
-            birdImg.getWidth(),
-            birdImg.getHeight(),
-            false, false);
-    }
-
-    private void drawBlocks() {
-        for (Block block : currentLevel.getBlocks()) {
-            Texture blockImg = AssetManager.getInstance().getTexture(block.getMaterial() + "_block.png");
-            float alpha = 1f - (block.getDestructionProgress() * 0.5f);
-            game.gameBatch.setColor(1, 1, 1, alpha);
-
-            game.gameBatch.draw(blockImg,
-                block.getX(), block.getY(),
-                Block.WIDTH/2, Block.HEIGHT/2,
-                Block.WIDTH, Block.HEIGHT,
+    private void drawSprites() {
+        for (int i = 0; i < sprites.size(); i++) {
+            float width = sprites.getWidth(i);
+            float height = sprites.getHeight(i);
+            game.gameBatch.setColor(1, 1, 1, sprites.getAlpha(i));
+            game.gameBatch.draw(region(sprites.getSheet(i), sprites.getRegion(i)),
+                sprites.getX(i), sprites.getY(i),
+                width/2, height/2,
+                width, height,
                 1, 1,
-                block.getRotation(),
-                0, 0,
-                blockImg.getWidth(),
-                blockImg.getHeight(),
-                false, false);
+                sprites.getRotation(i));
         }
         game.gameBatch.setColor(1, 1, 1, 1);
     }
 
+    private TextureRegion region(int sheet, int index) {
+        switch (sheet) {
+            case SpriteLayout.BIRD_SHEET: return birdRegions[index];
+            case SpriteLayout.BLOCK_SHEET: return blockRegions[index];
+            default: return pigRegions[index];
+        }
+    }
+
 
     private void clearBackground() {
         Gdx.gl.glClearColor(0.5f, 0.5f, 0.5f, 1);
@@ -890,34 +718,36 @@ public class GameScreen implements Screen, InputProcessor {
     private void doPhysicsStep(float deltaTime) {
         float frameTime = Math.min(deltaTime, 0.25f);
         accumulator += frameTime;
-        while (accumulator >= TIME_STEP) {
-            physicsWorld.step(TIME_STEP, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
-            accumulator -= TIME_STEP;
+        float timeStep = simulator.getTimeStep();
+        while (accumulator >= timeStep) {
+            if (replayRunner != null) {
+                replayRunner.applyPending();
+            }
+            simulator.step();
+            accumulator -= timeStep;
         }
     }
 
 
-    private float toBox2D(float pixels) {
-        return pixels / PPM;
-    }
-
-    private float toPixels(float box2DUnits) {
-        return box2DUnits * PPM;
-    }
-
     @Override
     public void dispose() {
         mainStage.dispose();
         pauseScreen.dispose();
         shapeRenderer.dispose();
-        physicsWorld.dispose();
+        staticLayers.dispose();
+        stopSimulationThread();
+        stopRecording();
+        simulator.dispose();
         debugRenderer.dispose();
+        perfHud.dispose();
+        AssetManager.getInstance().unload(AssetManager.GROUP_GAMEPLAY);
     }
 
     @Override
     public void resize(int width, int height) {
         mainStage.getViewport().update(width, height, true);
         pauseScreen.resize(width, height);
+        buildStaticLayers();
     }
 
     @Override
@@ -949,7 +779,17 @@ public class GameScreen implements Screen, InputProcessor {
     }
 
     @Override
-    public boolean keyDown(int keycode) { return false; }
+    public boolean keyDown(int keycode) {
+        if (keycode == Input.Keys.F3) {
+            perfHud.toggle();
+            return true;
+        }
+        if (keycode == Input.Keys.F4) {
+            debugDraw = !debugDraw;
+            return true;
+        }
+        return false;
+    }
     @Override
     public boolean keyUp(int keycode) { return false; }
     @Override
@@ -9,6 +9,11 @@ public class GlassBlock extends Block implements Serializable {
         super(x, y, 6.25f);
     }
 
+    @Override
+    public Block copy() {
+        return copyStateTo(new GlassBlock(x, y));
+    }
+
     @Override
     public String getMaterial() {
         return "glass";
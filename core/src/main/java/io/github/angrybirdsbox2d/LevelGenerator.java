@@ -0,0 +1,222 @@
+package io.github.angrybirdsbox2d;
+
+import java.util.Random;
+
+/**
+ * Seeded generator for large stress levels. Blocks are drawn from a shuffled bag of
+ * the requested wood/glass/steel counts and stacked into tower, wall and pyramid
+ * structures laid out left to right, with pigs spread over the structure tops.
+ * The same seed and settings always give the same layout.
+ * <p>
+ * Generated levels can be much wider than a screen; build their simulator with
+ * {@link #getWorldWidth()} and {@link #getWorldHeight()} so nothing is culled as off-screen.
+ */
+public class LevelGenerator {
+    public enum Archetype { TOWER, WALL, PYRAMID }
+
+    private static final float BLOCK = Block.WIDTH;
+    private static final float PIG = LevelSimulator.PIG_SIZE;
+    private static final float GAP = BLOCK;
+    private static final float MARGIN = 0.5f; // first structure starts at this fraction of the default width
+    private static final int PIG_HP = 50;
+    private static final float GROUND_TOP = 5; // half-height of the ground box
+
+    private final long seed;
+    private int woodCount = 20;
+    private int glassCount = 10;
+    private int steelCount = 10;
+    private int pigCount = 5;
+    private int birdCount = 3;
+    private int maxRows = 10;
+    private int maxColumns = 8;
+    private Archetype[] archetypes = Archetype.values();
+
+    private float worldWidth = LevelSimulator.DEFAULT_WORLD_WIDTH;
+    private float worldHeight = LevelSimulator.DEFAULT_WORLD_HEIGHT;
+
+    public LevelGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public LevelSingle generate(int levelNum) {
+        Random random = new Random(seed);
+        LevelSingle level = LevelSingle.createEmpty(levelNum, 0, true);
+
+        int[] bag = materialBag(random);
+        int nextBlock = 0;
+        int pigsLeft = pigCount;
+        // Laid out from y = 0 and lifted onto the ground once the world height is known
+        float x = LevelSimulator.DEFAULT_WORLD_WIDTH * MARGIN;
+        float top = 0;
+
+        while (nextBlock < bag.length) {
+            int remaining = bag.length - nextBlock;
+            Archetype archetype = archetypes[random.nextInt(archetypes.length)];
+            int columns = 1;
+            int rows;
+            switch (archetype) {
+                case TOWER:
+                    rows = Math.min(remaining, 2 + random.nextInt(maxRows - 1));
+                    break;
+                case WALL:
+                    columns = 2 + random.nextInt(maxColumns - 1);
+                    rows = Math.max(1, Math.min(remaining / columns, 1 + random.nextInt(maxRows)));
+                    columns = Math.min(columns, remaining);
+                    break;
+                case PYRAMID:
+                default:
+                    columns = 2 + random.nextInt(maxColumns - 1);
+                    // A pyramid with a base of n holds n(n+1)/2 blocks
+                    while (columns > 1 && columns * (columns + 1) / 2 > remaining) columns--;
+                    rows = columns;
+                    break;
+            }
+
+            // Pigs are handed out in proportion to the blocks each structure uses
+            int used = archetype == Archetype.PYRAMID ? columns * (columns + 1) / 2 : columns * rows;
+            int pigs = nextBlock + used >= bag.length ? pigsLeft :
+                Math.min(pigsLeft, Math.round((float) pigCount * used / bag.length));
+
+            float structureTop;
+            if (archetype == Archetype.PYRAMID) {
+                for (int row = 0; row < rows; row++) {
+                    for (int col = 0; col < columns - row; col++) {
+                        addBlock(level, bag[nextBlock++], x + (col + row * 0.5f) * BLOCK, row * BLOCK);
+                    }
+                }
+                structureTop = rows * BLOCK;
+                addPigs(level, random, pigs, x + (columns - 1) * 0.5f * BLOCK, structureTop, 1);
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    for (int col = 0; col < columns; col++) {
+                        addBlock(level, bag[nextBlock++], x + col * BLOCK, row * BLOCK);
+                    }
+                }
+                structureTop = rows * BLOCK;
+                addPigs(level, random, pigs, x, structureTop, columns);
+            }
+            pigsLeft -= pigs;
+            top = Math.max(top, structureTop + (float) Math.ceil(pigs / (float) columns) * PIG);
+            x += columns * BLOCK + GAP;
+        }
+
+        // Whatever is left once the blocks run out sits on the ground
+        addPigs(level, random, pigsLeft, x, 0, Math.max(1, pigsLeft));
+        x += pigsLeft * BLOCK;
+
+        for (int i = 0; i < birdCount; i++) {
+            BirdType type = BirdType.values()[i % BirdType.values().length];
+            level.addBird(new Bird(birdHealth(type), type, 1));
+        }
+
+        worldWidth = Math.max(LevelSimulator.DEFAULT_WORLD_WIDTH, x + GAP);
+        // The ground sits at GROUND_SCALE of the world height, so taller levels need a taller world
+        worldHeight = Math.max(LevelSimulator.DEFAULT_WORLD_HEIGHT,
+            (top + GROUND_TOP + BLOCK * 2) / (1 - LevelSimulator.GROUND_SCALE));
+
+        float groundY = worldHeight * LevelSimulator.GROUND_SCALE + GROUND_TOP;
+        for (Block block : level.getBlocks()) {
+            block.setY(block.getY() + groundY);
+        }
+        for (Pig pig : level.getPigs()) {
+            pig.setY(pig.getY() + groundY);
+        }
+        return level;
+    }
+
+    private int[] materialBag(Random random) {
+        int[] bag = new int[woodCount + glassCount + steelCount];
+        int i = 0;
+        for (int n = 0; n < woodCount; n++) bag[i++] = EntityStore.WOOD;
+        for (int n = 0; n < glassCount; n++) bag[i++] = EntityStore.GLASS;
+        for (int n = 0; n < steelCount; n++) bag[i++] = EntityStore.STEEL;
+        for (int n = bag.length - 1; n > 0; n--) {
+            int j = random.nextInt(n + 1);
+            int swap = bag[n];
+            bag[n] = bag[j];
+            bag[j] = swap;
+        }
+        return bag;
+    }
+
+    private static void addBlock(LevelSingle level, int kind, float x, float y) {
+        switch (kind) {
+            case EntityStore.GLASS:
+                level.addBlock(new GlassBlock(x, y));
+                break;
+            case EntityStore.STEEL:
+                level.addBlock(new SteelBlock(x, y));
+                break;
+            default:
+                level.addBlock(new WoodBlock(x, y));
+                break;
+        }
+    }
+
+    /** Lays {@code count} pigs on a surface {@code columns} blocks wide, stacking rows when it fills up. */
+    private static void addPigs(LevelSingle level, Random random, int count, float x, float y, int columns) {
+        PigType[] types = PigType.values();
+        for (int i = 0; i < count; i++) {
+            Pig pig = new Pig(PIG_HP, types[random.nextInt(types.length)]);
+            pig.setX(x + (i % columns) * BLOCK + (BLOCK - PIG) / 2);
+            pig.setY(y + (i / columns) * PIG);
+            level.addPig(pig);
+        }
+    }
+
+    private static int birdHealth(BirdType type) {
+        switch (type) {
+            case YELLOW:
+                return 1200;
+            case BLACK:
+                return 1400;
+            case RED:
+            default:
+                return 1600;
+        }
+    }
+
+    public LevelGenerator setBlocks(int wood, int glass, int steel) {
+        this.woodCount = Math.max(0, wood);
+        this.glassCount = Math.max(0, glass);
+        this.steelCount = Math.max(0, steel);
+        return this;
+    }
+
+    public LevelGenerator setPigs(int pigs) {
+        this.pigCount = Math.max(0, pigs);
+        return this;
+    }
+
+    public LevelGenerator setBirds(int birds) {
+        this.birdCount = Math.max(0, birds);
+        return this;
+    }
+
+    /** Limits structure height in blocks; pyramids are limited by {@link #setMaxColumns} instead. */
+    public LevelGenerator setMaxRows(int maxRows) {
+        this.maxRows = Math.max(2, maxRows);
+        return this;
+    }
+
+    public LevelGenerator setMaxColumns(int maxColumns) {
+        this.maxColumns = Math.max(2, maxColumns);
+        return this;
+    }
+
+    public LevelGenerator setArchetypes(Archetype... archetypes) {
+        if (archetypes.length > 0) {
+            this.archetypes = archetypes.clone();
+        }
+        return this;
+    }
+
+    /** Width in pixels the last generated level needs; at least the default world width. */
+    public float getWorldWidth() {
+        return worldWidth;
+    }
+
+    public float getWorldHeight() {
+        return worldHeight;
+    }
+}
@@ -0,0 +1,804 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.List;
+
+/**
+ * Owns the Box2D world for a single level: body creation, contact damage and
+ * syncing body transforms back onto the game objects. Has no dependency on
+ * graphics, so it can be stepped headless as fast as the CPU allows.
+ */
+public class LevelSimulator {
+    public static final float PPM = 100f;
+    public static final float TIME_STEP = 1/60f;
+    public static final int VELOCITY_ITERATIONS = 6;
+    public static final int POSITION_ITERATIONS = 2;
+    public static final float GRAVITY = -9.81f/6f;
+    public static final float PIG_SIZE = 35f;
+    public static final float LAUNCH_SPEED_MULTIPLIER = 7f;
+    public static final float MAX_DRAG_DISTANCE = 100f;
+    public static final float GROUND_SCALE = 0.132f;
+    public static final float SLING_SCALE = 0.07f;
+
+    // Used when there is no window to size the world from (build boxes, tools)
+    public static final float DEFAULT_WORLD_WIDTH = 1920f;
+    public static final float DEFAULT_WORLD_HEIGHT = 1080f;
+    private static final float DEFAULT_SLING_ASPECT = 202f / 85f;
+
+    // Box2D's b2_velocityThreshold: it treats slower approaches as resting contact rather
+    // than a collision. A resting load only gains |GRAVITY| * TIME_STEP (about 0.03 m/s) per
+    // step, and a block has to fall about 0.3 m in this gravity to reach it.
+    private static final float MIN_IMPACT_SPEED = 1f;
+    private static final int CONTACT_CAPACITY = 1024;
+    private static final float GROUND_DAMAGE = 300f;
+
+    // BLACK bird explosion; damage and impulse fall off linearly to zero at the radius
+    public static final float BLAST_RADIUS = 150f;
+    private static final float BLAST_DAMAGE = 100f;
+    private static final float BLAST_IMPULSE = 1.5f;
+
+    private static final int RULE_NONE = 0;
+    private static final int RULE_BIRD_PIG = 1;
+    private static final int RULE_BIRD_BLOCK = 2;
+    private static final int RULE_BLOCK_PIG = 3;
+    // Damage rule for every (kindA, kindB) pair, indexed kindA * KIND_COUNT + kindB
+    private static final int[] DAMAGE_RULES = new int[EntityStore.KIND_COUNT * EntityStore.KIND_COUNT];
+    // Base damage a block of each kind deals to a pig it lands on
+    private static final float[] BLOCK_PIG_DAMAGE = new float[EntityStore.KIND_COUNT];
+
+    static {
+        Box2D.init();
+
+        for (int kind = EntityStore.WOOD; kind < EntityStore.KIND_COUNT; kind++) {
+            setRule(EntityStore.BIRD, kind, RULE_BIRD_BLOCK);
+            setRule(kind, EntityStore.PIG, RULE_BLOCK_PIG);
+        }
+        setRule(EntityStore.BIRD, EntityStore.PIG, RULE_BIRD_PIG);
+
+        BLOCK_PIG_DAMAGE[EntityStore.WOOD] = 200;
+        BLOCK_PIG_DAMAGE[EntityStore.GLASS] = 200 * 0.8f; // Glass blocks deal less damage
+        BLOCK_PIG_DAMAGE[EntityStore.STEEL] = 200 * 1.5f; // Steel blocks deal more damage
+    }
+
+    private static void setRule(int kindA, int kindB, int rule) {
+        DAMAGE_RULES[kindA * EntityStore.KIND_COUNT + kindB] = rule;
+        DAMAGE_RULES[kindB * EntityStore.KIND_COUNT + kindA] = rule;
+    }
+
+    private final LevelSingle level;
+    private final World world;
+    private final float worldWidth;
+    private final float worldHeight;
+    private final float groundHeight;
+    private final EntityStore entities = new EntityStore();
+    private final BodyFactory bodyFactory = new BodyFactory();
+    private final ContactBuffer contacts = new ContactBuffer(CONTACT_CAPACITY);
+    private float[] pendingDamage = new float[64];
+    private int[] damagedSlots = new int[64];
+    private int damagedCount;
+    // Linear velocity of each slot as the current step began, for contact approach speeds
+    private float[] stepVelocityX = new float[64];
+    private float[] stepVelocityY = new float[64];
+    private final Array<GameObject> destroyed = new Array<>(false, 16);
+    private final Vector2 slingAnchor = new Vector2();
+
+    private Body aimBody;
+    private Bird activeBird;
+    private Body activeBirdBody;
+    private long stepCount;
+    private long lastStepNanos;
+    private int awakeBodies;
+    private float timeStep = TIME_STEP;
+    private final WorldCheckpoint initialState;
+    private boolean birdExploded;
+    private boolean detonatePending;
+    private ReplayRecorder recorder;
+
+    private final Array<Body> blastCandidates = new Array<>(false, 32);
+    private final Vector2 blastCenter = new Vector2();
+    private final Vector2 blastTarget = new Vector2();
+    private Body lineOfSightHit;
+    private float lineOfSightFraction;
+
+    private final QueryCallback blastQuery = new QueryCallback() {
+        @Override
+        public boolean reportFixture(Fixture fixture) {
+            Body body = fixture.getBody();
+            if (body.getUserData() instanceof GameObject && body != activeBirdBody &&
+                !blastCandidates.contains(body, true)) {
+                blastCandidates.add(body);
+            }
+            return true;
+        }
+    };
+
+    private final RayCastCallback lineOfSight = new RayCastCallback() {
+        @Override
+        public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
+            if (fixture.getBody() == activeBirdBody) return -1;
+            if (fraction < lineOfSightFraction) {
+                lineOfSightFraction = fraction;
+                lineOfSightHit = fixture.getBody();
+            }
+            return fraction;
+        }
+    };
+
+    public LevelSimulator(LevelSingle level) {
+        this(level, DEFAULT_WORLD_WIDTH, DEFAULT_WORLD_HEIGHT);
+    }
+
+    public LevelSimulator(LevelSingle level, float worldWidth, float worldHeight) {
+        this.level = level;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.groundHeight = worldHeight * GROUND_SCALE;
+        this.world = new World(new Vector2(0, GRAVITY), true);
+
+        float slingW = worldHeight * SLING_SCALE;
+        float slingH = slingW * DEFAULT_SLING_ASPECT;
+        slingAnchor.set(worldWidth * 0.1f + slingW * 0.6f, groundHeight + slingH * 0.6f);
+
+        createGround();
+        bodyFactory.instantiate(world, level, entities);
+        initializeCollisionListener();
+        initialState = WorldCheckpoint.capture(this);
+    }
+
+    private void createGround() {
+        BodyDef groundDef = new BodyDef();
+        groundDef.type = BodyDef.BodyType.StaticBody;
+        groundDef.position.set(0, toBox2D(groundHeight));
+
+        Body ground = world.createBody(groundDef);
+        PolygonShape groundShape = new PolygonShape();
+        groundShape.setAsBox(toBox2D(worldWidth), toBox2D(5));
+
+        FixtureDef groundFixture = new FixtureDef();
+        groundFixture.shape = groundShape;
+        groundFixture.friction = 0.7f;
+        groundFixture.restitution = 0.1f;
+
+        ground.createFixture(groundFixture);
+        groundShape.dispose();
+    }
+
+    private Body createBirdBody(Bird bird, float x, float y) {
+        Body body = bodyFactory.createBird(world, bird, x, y);
+        entities.add(bird, body, bird.getRadius(), bird.getRadius());
+        return body;
+    }
+
+    public void beginAim(float x, float y) {
+        if (level.getBirds().isEmpty()) return;
+        Bird currentBird = level.getBirds().get(0);
+
+        if (recorder != null) recorder.beginAim(stepCount, x, y);
+        destroyAimBody();
+        aimBody = bodyFactory.createAimBody(world, currentBird, x, y);
+    }
+
+    public void updateAim(float x, float y) {
+        if (aimBody != null) {
+            if (recorder != null) recorder.updateAim(stepCount, x, y);
+            aimBody.setTransform(toBox2D(x), toBox2D(y), 0);
+        }
+    }
+
+    public void endAim() {
+        if (aimBody != null && recorder != null) recorder.endAim(stepCount);
+        destroyAimBody();
+    }
+
+    private void destroyAimBody() {
+        if (aimBody != null) {
+            world.destroyBody(aimBody);
+            aimBody = null;
+        }
+    }
+
+    /**
+     * Launches the next bird from {@code (releaseX, releaseY)} with the given drag
+     * vector (release point minus sling anchor), both in pixels. The drag is clamped
+     * to {@link #MAX_DRAG_DISTANCE} exactly like a player's pull on the sling.
+     */
+    public boolean launchBird(float releaseX, float releaseY, float dragX, float dragY) {
+        if (level.getBirds().isEmpty() || activeBird != null) return false;
+
+        float length = (float)Math.sqrt(dragX * dragX + dragY * dragY);
+        if (length <= 0) return false;
+
+        float distance = Math.min(length, MAX_DRAG_DISTANCE);
+        float launchPower = (distance / MAX_DRAG_DISTANCE) * LAUNCH_SPEED_MULTIPLIER;
+        float scale = -launchPower * distance / length;
+
+        if (recorder != null) recorder.launch(stepCount, releaseX, releaseY, dragX, dragY);
+        activeBird = level.getBirds().get(0);
+        activeBirdBody = createBirdBody(activeBird, releaseX, releaseY);
+        activeBirdBody.setLinearVelocity(dragX * scale / PPM, dragY * scale / PPM);
+        return true;
+    }
+
+    /** Launches from the sling anchor, as if the player released at anchor + drag. */
+    public boolean launchFromSling(float dragX, float dragY) {
+        float length = (float)Math.sqrt(dragX * dragX + dragY * dragY);
+        if (length > MAX_DRAG_DISTANCE) {
+            dragX = dragX / length * MAX_DRAG_DISTANCE;
+            dragY = dragY / length * MAX_DRAG_DISTANCE;
+        }
+        return launchBird(slingAnchor.x + dragX, slingAnchor.y + dragY, dragX, dragY);
+    }
+
+    /**
+     * Advances the world by one fixed time step, applies the contact damage it produced
+     * and syncs the new transforms, keeping the old ones for render interpolation.
+     */
+    public void step() {
+        GameEvents.PhysicsStep event = GameEvents.beginStep();
+        long start = System.nanoTime();
+        entities.savePrevious();
+        saveStepVelocities();
+        world.step(timeStep, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
+        stepCount++;
+        applyContactDamage();
+        if (detonatePending) {
+            explode();
+        }
+        syncGameObjects();
+        lastStepNanos = System.nanoTime() - start;
+        if (event != null) {
+            GameEvents.end(event, stepCount, entities.size(), world.getContactCount(), awakeBodies);
+        }
+    }
+
+    /**
+     * Removes the flying bird once it has left the world or come to rest.
+     * Returns true when a bird was retired this call.
+     */
+    public boolean retireStoppedBird() {
+        if (activeBird == null) return false;
+
+        Vector2 pos = activeBirdBody.getPosition();
+        Vector2 vel = activeBirdBody.getLinearVelocity();
+        boolean offScreen = toPixels(pos.x) < 0 || toPixels(pos.x) > worldWidth ||
+            toPixels(pos.y) < 0 || toPixels(pos.y) > worldHeight;
+        boolean stopped = vel.len() < 0.1f;
+
+        if (offScreen || stopped || birdExploded) {
+            if (recorder != null) recorder.retireBird(stepCount);
+            retireActiveBird();
+            return true;
+        }
+        return false;
+    }
+
+    /** Removes the bird in flight wherever it is, as a replay does when the recording retired it. */
+    public boolean retireBird() {
+        if (activeBird == null) return false;
+        if (recorder != null) recorder.retireBird(stepCount);
+        retireActiveBird();
+        return true;
+    }
+
+    private void retireActiveBird() {
+        world.destroyBody(activeBirdBody);
+        entities.remove(activeBird);
+        level.getBirds().remove(activeBird);
+        activeBird = null;
+        activeBirdBody = null;
+        birdExploded = false;
+        detonatePending = false;
+    }
+
+    boolean hasBirdExploded() {
+        return birdExploded;
+    }
+
+    /** True while the bird in flight is a BLACK bird that has not gone off yet. */
+    public boolean canDetonate() {
+        return activeBird != null && activeBird.getBirdType() == BirdType.BLACK && !birdExploded;
+    }
+
+    /**
+     * Blows up the flying BLACK bird. Only bodies whose fixtures overlap the blast's
+     * bounding box are looked at, so the cost follows the blast radius rather than the
+     * level size. A body is hit only if a ray from the centre reaches it before any other
+     * fixture. Returns false if there was nothing to detonate.
+     */
+    public boolean detonate() {
+        if (recorder != null && canDetonate()) recorder.detonate(stepCount);
+        return explode();
+    }
+
+    private boolean explode() {
+        detonatePending = false;
+        if (!canDetonate()) return false;
+        birdExploded = true;
+
+        blastCenter.set(activeBirdBody.getPosition());
+        float radius = toBox2D(BLAST_RADIUS);
+        blastCandidates.clear();
+        world.QueryAABB(blastQuery, blastCenter.x - radius, blastCenter.y - radius,
+            blastCenter.x + radius, blastCenter.y + radius);
+
+        for (int i = 0; i < blastCandidates.size; i++) {
+            Body body = blastCandidates.get(i);
+            blastTarget.set(body.getWorldCenter());
+            float distance = blastTarget.dst(blastCenter);
+            if (distance > radius) continue;
+
+            lineOfSightHit = body;
+            lineOfSightFraction = 1f;
+            if (distance > 0) {
+                world.rayCast(lineOfSight, blastCenter, blastTarget);
+            }
+            if (lineOfSightHit != body) continue;
+
+            float falloff = 1f - distance / radius;
+            int slot = entities.indexOf((GameObject) body.getUserData());
+            if (slot >= 0) {
+                addDamage(slot, BLAST_DAMAGE * falloff);
+            }
+            if (distance > 0) {
+                float scale = BLAST_IMPULSE * falloff / distance;
+                body.applyLinearImpulse((blastTarget.x - blastCenter.x) * scale,
+                    (blastTarget.y - blastCenter.y) * scale, blastTarget.x, blastTarget.y, true);
+            }
+        }
+        blastCandidates.clear();
+
+        // The bird is gone; its body is removed when it is next retired
+        activeBirdBody.setActive(false);
+        applyContactDamage();
+        return true;
+    }
+
+    /** Copies body transforms onto the game objects and drops pigs that left the world. */
+    public void syncGameObjects() {
+        int slot = 0;
+        int awake = 0;
+        while (slot < entities.size()) {
+            Body body = entities.getBody(slot);
+            if (!body.isActive()) {
+                slot++;
+                continue;
+            }
+
+            Vector2 position = body.getPosition();
+            float px = toPixels(position.x);
+            float py = toPixels(position.y);
+
+            if (entities.getKind(slot) == EntityStore.PIG && (px < -50 || px > worldWidth + 50 ||
+                py < -50 || py > worldHeight + 50)) {
+                GameObject pig = entities.getObject(slot);
+                world.destroyBody(body);
+                entities.removeAt(slot);
+                level.getPigs().remove(pig);
+                continue; // the last slot was swapped into this one
+            }
+
+            entities.setTransform(slot, px, py, body.getAngle() * MathUtils.radiansToDegrees);
+            if (body.isAwake()) awake++;
+            slot++;
+        }
+        awakeBodies = awake;
+    }
+
+    /**
+     * Steps until the launched bird has been retired, syncing once per step. A bird
+     * still rolling after {@code maxSteps} is retired anyway. Returns the steps taken.
+     */
+    public int runUntilBirdRetired(int maxSteps) {
+        int steps = 0;
+        while (activeBird != null && steps < maxSteps) {
+            step();
+            steps++;
+            retireStoppedBird();
+        }
+        if (activeBird != null) {
+            retireActiveBird();
+        }
+        return steps;
+    }
+
+    /** Puts the level back the way it was when this simulator was built. */
+    public void restart() {
+        if (recorder != null) recorder.restart(stepCount);
+        restore(initialState);
+    }
+
+    /**
+     * Restores every block, pig and the bird queue from {@code checkpoint} in one pass.
+     * Bodies that still exist are moved back in place; only ones destroyed since are recreated.
+     */
+    public void restore(WorldCheckpoint checkpoint) {
+        destroyAimBody();
+        if (activeBird != null) {
+            retireActiveBird();
+        }
+        contacts.clear();
+
+        // Anything created after the checkpoint has no place in it
+        for (int slot = entities.size() - 1; slot >= 0; slot--) {
+            if (checkpoint.indexOf(entities.getObject(slot)) < 0) {
+                world.destroyBody(entities.getBody(slot));
+                entities.removeAt(slot);
+            }
+        }
+
+        List<Block> blocks = level.getBlocks();
+        List<Pig> pigs = level.getPigs();
+        List<Bird> birds = level.getBirds();
+        blocks.clear();
+        pigs.clear();
+        birds.clear();
+        entities.ensureCapacity(checkpoint.size());
+
+        for (int i = 0; i < checkpoint.size(); i++) {
+            GameObject obj = checkpoint.getObject(i);
+            boolean pig = checkpoint.getKind(i) == EntityStore.PIG;
+            if (pig) {
+                ((Pig) obj).setHp((int) checkpoint.getHealth(i));
+                pigs.add((Pig) obj);
+            } else {
+                ((Block) obj).setHealth(checkpoint.getHealth(i));
+                blocks.add((Block) obj);
+            }
+
+            int slot = entities.indexOf(obj);
+            Body body;
+            if (slot >= 0) {
+                body = entities.getBody(slot);
+            } else if (pig) {
+                body = bodyFactory.createPig(world, (Pig) obj);
+                slot = entities.add(obj, body, PIG_SIZE/2, PIG_SIZE/2);
+            } else {
+                body = bodyFactory.createBlock(world, (Block) obj);
+                slot = entities.add(obj, body, Block.WIDTH/2, Block.HEIGHT/2);
+            }
+
+            body.setTransform(checkpoint.getBodyX(i), checkpoint.getBodyY(i), checkpoint.getAngle(i));
+            body.setLinearVelocity(checkpoint.getVelocityX(i), checkpoint.getVelocityY(i));
+            body.setAngularVelocity(checkpoint.getAngularVelocity(i));
+            body.setAwake(checkpoint.isAwake(i));
+            entities.setTransform(slot, toPixels(checkpoint.getBodyX(i)), toPixels(checkpoint.getBodyY(i)),
+                checkpoint.getAngle(i) * MathUtils.radiansToDegrees);
+        }
+        entities.savePrevious();
+
+        for (int i = 0; i < checkpoint.getBirdCount(); i++) {
+            birds.add(checkpoint.getBird(i));
+        }
+        if (checkpoint.hasBirdInFlight()) {
+            restoreBirdInFlight(checkpoint);
+        }
+        stepCount = checkpoint.getStepCount();
+    }
+
+    private void restoreBirdInFlight(WorldCheckpoint checkpoint) {
+        activeBird = checkpoint.getBird(0);
+        float px = toPixels(checkpoint.getBirdX());
+        float py = toPixels(checkpoint.getBirdY());
+        activeBirdBody = createBirdBody(activeBird, px, py);
+        activeBirdBody.setTransform(checkpoint.getBirdX(), checkpoint.getBirdY(), checkpoint.getBirdAngle());
+        activeBirdBody.setLinearVelocity(checkpoint.getBirdVelocityX(), checkpoint.getBirdVelocityY());
+        activeBirdBody.setAngularVelocity(checkpoint.getBirdAngularVelocity());
+        birdExploded = checkpoint.hasBirdExploded();
+
+        int slot = entities.indexOf(activeBird);
+        entities.setTransform(slot, px, py, checkpoint.getBirdAngle() * MathUtils.radiansToDegrees);
+        entities.savePrevious();
+    }
+
+    /** Star rating for a cleared level, by how many birds it took. */
+    public static int starsForBirdsUsed(int birdsUsed) {
+        // Base score on birds used
+        int stars = 3;
+
+        // Deduct stars based on birds used
+        if (birdsUsed > 1) stars--;
+        if (birdsUsed > 2) stars--;
+
+        return Math.max(1, stars);  // Ensure at least 1 star for completing level
+    }
+
+    private void initializeCollisionListener() {
+        world.setContactListener(new ContactListener() {
+            @Override
+            public void beginContact(Contact contact) {}
+
+            @Override
+            public void endContact(Contact contact) {}
+
+            @Override
+            public void preSolve(Contact contact, Manifold oldManifold) {}
+
+            @Override
+            public void postSolve(Contact contact, ContactImpulse impulse) {
+                if (activeBird == null) return;
+                Body bodyA = contact.getFixtureA().getBody();
+                Body bodyB = contact.getFixtureB().getBody();
+                float[] normalImpulses = impulse.getNormalImpulses();
+                float strongest = 0;
+                for (int i = 0; i < impulse.getCount(); i++) {
+                    strongest = Math.max(strongest, normalImpulses[i]);
+                }
+                recordContact(bodyA, bodyB, approachSpeed(bodyA, bodyB, contact.getWorldManifold().getNormal()),
+                    strongest);
+            }
+        });
+    }
+
+    private void saveStepVelocities() {
+        int size = entities.size();
+        if (size > stepVelocityX.length) {
+            stepVelocityX = new float[Math.max(size, stepVelocityX.length * 2)];
+            stepVelocityY = new float[stepVelocityX.length];
+        }
+        for (int slot = 0; slot < size; slot++) {
+            Vector2 velocity = entities.getBody(slot).getLinearVelocity();
+            stepVelocityX[slot] = velocity.x;
+            stepVelocityY[slot] = velocity.y;
+        }
+    }
+
+    /**
+     * How fast A was closing on B along the contact normal (which points from A to B)
+     * before this step's impulses were solved. Bodies without a slot, like the ground, don't move.
+     */
+    private float approachSpeed(Body bodyA, Body bodyB, Vector2 normal) {
+        int slotA = slotOf(bodyA);
+        int slotB = slotOf(bodyB);
+        float vx = (slotA >= 0 ? stepVelocityX[slotA] : 0) - (slotB >= 0 ? stepVelocityX[slotB] : 0);
+        float vy = (slotA >= 0 ? stepVelocityY[slotA] : 0) - (slotB >= 0 ? stepVelocityY[slotB] : 0);
+        return vx * normal.x + vy * normal.y;
+    }
+
+    /**
+     * Queues one solved contact for damage. Only impacts count: a contact approaching
+     * slower than {@code MIN_IMPACT_SPEED} m/s is resting and does nothing, however
+     * much load it carries. Nothing is damaged until {@link #applyContactDamage()}
+     * runs after the step. Public so the benchmarks module can feed contacts directly.
+     */
+    public void recordContact(Body bodyA, Body bodyB, float approachSpeed, float normalImpulse) {
+        if (activeBird == null || approachSpeed < MIN_IMPACT_SPEED) return;
+        if ((bodyA == activeBirdBody || bodyB == activeBirdBody) && canDetonate()) {
+            // Can't change the world mid-step, so go off right after it
+            detonatePending = true;
+        }
+
+        int slotA = slotOf(bodyA);
+        int slotB = slotOf(bodyB);
+        if (slotA < 0 && slotB < 0) return;
+
+        if (!contacts.push(slotA, slotB, normalImpulse)) {
+            // Buffer full mid-step: fold what we have into the per-body totals and carry on
+            drainContacts();
+            contacts.push(slotA, slotB, normalImpulse);
+        }
+    }
+
+    private int slotOf(Body body) {
+        Object userData = body.getUserData();
+        return userData instanceof GameObject ? entities.indexOf((GameObject) userData) : -1;
+    }
+
+    private void drainContacts() {
+        float lowPigY = toBox2D(groundHeight + 10);
+
+        while (!contacts.isEmpty()) {
+            int slotA = contacts.getSlotA();
+            int slotB = contacts.getSlotB();
+            float impulse = contacts.getImpulse();
+            contacts.pop();
+
+            // Check for ground collisions first
+            if (isLowPig(slotA, lowPigY)) {
+                addDamage(slotA, GROUND_DAMAGE * impulse / 10f);
+                continue;
+            }
+            if (isLowPig(slotB, lowPigY)) {
+                addDamage(slotB, GROUND_DAMAGE * impulse / 10f);
+                continue;
+            }
+            if (slotA < 0 || slotB < 0) continue;
+
+            int kindA = entities.getKind(slotA);
+            int kindB = entities.getKind(slotB);
+            switch (DAMAGE_RULES[kindA * EntityStore.KIND_COUNT + kindB]) {
+                case RULE_BIRD_PIG: {
+                    int bird = kindA == EntityStore.BIRD ? slotA : slotB;
+                    int pig = bird == slotA ? slotB : slotA;
+                    addDamage(pig, birdDamage(bird) * impulse / 15f);
+                    break;
+                }
+                case RULE_BIRD_BLOCK: {
+                    int bird = kindA == EntityStore.BIRD ? slotA : slotB;
+                    int block = bird == slotA ? slotB : slotA;
+                    addDamage(block, birdDamage(bird) * impulse / 20f);
+                    break;
+                }
+                case RULE_BLOCK_PIG: {
+                    int pig = kindA == EntityStore.PIG ? slotA : slotB;
+                    int block = pig == slotA ? slotB : slotA;
+                    addDamage(pig, BLOCK_PIG_DAMAGE[entities.getKind(block)] * impulse / 15f);
+                    break;
+                }
+                case RULE_NONE:
+                default:
+                    break;
+            }
+        }
+    }
+
+    private boolean isLowPig(int slot, float lowPigY) {
+        return slot >= 0 && entities.getKind(slot) == EntityStore.PIG &&
+            entities.getBody(slot).getPosition().y < lowPigY;
+    }
+
+    private int birdDamage(int slot) {
+        return ((Bird) entities.getObject(slot)).getDamage();
+    }
+
+    private void addDamage(int slot, float damage) {
+        if (damage <= 0) return;
+        if (slot >= pendingDamage.length) {
+            float[] grown = new float[Math.max(slot + 1, pendingDamage.length * 2)];
+            System.arraycopy(pendingDamage, 0, grown, 0, pendingDamage.length);
+            pendingDamage = grown;
+        }
+        if (pendingDamage[slot] == 0) {
+            if (damagedCount == damagedSlots.length) {
+                int[] grown = new int[damagedSlots.length * 2];
+                System.arraycopy(damagedSlots, 0, grown, 0, damagedCount);
+                damagedSlots = grown;
+            }
+            damagedSlots[damagedCount++] = slot;
+        }
+        pendingDamage[slot] += damage;
+    }
+
+    /**
+     * Applies the damage each body collected during the last step, once per body,
+     * then destroys whatever broke. Must not be called from inside {@code World.step}.
+     */
+    public void applyContactDamage() {
+        drainContacts();
+
+        for (int i = 0; i < damagedCount; i++) {
+            int slot = damagedSlots[i];
+            GameObject obj = entities.getObject(slot);
+            obj.takeDamage((int) pendingDamage[slot]);
+            pendingDamage[slot] = 0;
+
+            int kind = entities.getKind(slot);
+            boolean broken = kind == EntityStore.PIG ? ((Pig) obj).getHp() <= 0 :
+                EntityStore.isBlock(kind) && ((Block) obj).isDestroyed();
+            if (broken) {
+                destroyed.add(obj);
+            }
+        }
+        damagedCount = 0;
+
+        if (destroyed.size == 0) return;
+
+        // Removal swaps slots around, so only remove once every damaged slot has been read
+        GameEvents.FramePhase phase = GameEvents.beginPhase(GameEvents.PHASE_DESTROY_QUEUE, stepCount);
+        for (int i = 0; i < destroyed.size; i++) {
+            GameObject obj = destroyed.get(i);
+            Body body = entities.remove(obj);
+            if (body != null) {
+                world.destroyBody(body);
+                if (obj instanceof Pig) {
+                    level.getPigs().remove(obj);
+                } else {
+                    level.getBlocks().remove(obj);
+                }
+            }
+        }
+        destroyed.clear();
+        GameEvents.end(phase);
+    }
+
+    public LevelSingle getLevel() {
+        return level;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public Body getBody(GameObject obj) {
+        int slot = entities.indexOf(obj);
+        return slot < 0 ? null : entities.getBody(slot);
+    }
+
+    public EntityStore getEntities() {
+        return entities;
+    }
+
+    public int getBodyCount() {
+        return entities.size();
+    }
+
+    /** Temporary body that follows the pull while aiming, or null. */
+    public Body getAimBody() {
+        return aimBody;
+    }
+
+    public Bird getActiveBird() {
+        return activeBird;
+    }
+
+    public boolean isBirdInFlight() {
+        return activeBird != null;
+    }
+
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    /** Seconds simulated per step. Raising it lowers the physics rate on slow machines. */
+    public void setTimeStep(float timeStep) {
+        this.timeStep = timeStep;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    /**
+     * Records every input from now on, tagged with the step it arrives before; null
+     * stops recording. Restoring any checkpoint but the initial one can't be replayed.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /** Wall time of the last {@link #step()}, including damage and object sync. */
+    public long getLastStepNanos() {
+        return lastStepNanos;
+    }
+
+    /** Awake bodies as of the last object sync. */
+    public int getAwakeBodyCount() {
+        return awakeBodies;
+    }
+
+    public float getGroundHeight() {
+        return groundHeight;
+    }
+
+    public float getWorldWidth() {
+        return worldWidth;
+    }
+
+    public float getWorldHeight() {
+        return worldHeight;
+    }
+
+    public Vector2 getSlingAnchor() {
+        return slingAnchor;
+    }
+
+    public void setSlingAnchor(float x, float y) {
+        slingAnchor.set(x, y);
+    }
+
+    public static float toBox2D(float pixels) {
+        return pixels / PPM;
+    }
+
+    public static float toPixels(float box2DUnits) {
+        return box2DUnits * PPM;
+    }
+
+    public void dispose() {
+        world.dispose();
+        bodyFactory.dispose();
+    }
+}
@@ -1,7 +1,5 @@
 package io.github.angrybirdsbox2d;
 
-import com.badlogic.gdx.Gdx;
-
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -18,6 +16,8 @@ public class LevelSingle implements Serializable {
     private transient List<Block> blocksList;
     private transient List<Pig> pigsList;
     private transient List<Bird> birdsList;
+    // Shared layout this level was built from; null for generated and decoded layouts
+    private transient LevelTemplate template;
 
     private static class SerializableGameObject implements Serializable {
         private static final long serialVersionUID = 102L;
@@ -30,14 +30,55 @@ public class LevelSingle implements Serializable {
         int unlockLevel;
     }
 
+    /**
+     * Built-in level backed by its {@link LevelTemplate}. Only the rating and lock state
+     * are kept; the layout is built by {@link #instantiate(float)} when the level is played.
+     */
     public LevelSingle(int levelNum, int stars, boolean unlocked) {
+        this(levelNum, stars, unlocked, LevelTemplate.forLevel(levelNum));
+    }
+
+    private LevelSingle(int levelNum, int stars, boolean unlocked, LevelTemplate template) {
         this.levelNum = levelNum;
         this.stars = stars;
         this.unlocked = unlocked;
+        this.template = template;
         this.blocksList = new ArrayList<>();
         this.pigsList = new ArrayList<>();
         this.birdsList = new ArrayList<>();
-        buildLevel();
+    }
+
+    /** Level with no blocks, pigs or birds, for layouts that are not built in. */
+    static LevelSingle createEmpty(int levelNum, int stars, boolean unlocked) {
+        return new LevelSingle(levelNum, stars, unlocked, null);
+    }
+
+    /**
+     * Fresh starting layout for playing this level in a world {@code worldWidth} pixels
+     * wide. Built-in levels are laid out again from their template; others are copied.
+     */
+    public LevelSingle instantiate(float worldWidth) {
+        if (template == null) {
+            return copy();
+        }
+        LevelSingle level = new LevelSingle(levelNum, stars, unlocked, template);
+        level.buildLevel(worldWidth);
+        return level;
+    }
+
+    /** Deep copy of the current layout, so a simulation can consume it without touching this level. */
+    public LevelSingle copy() {
+        LevelSingle copy = new LevelSingle(levelNum, stars, unlocked, template);
+        for (Block block : blocksList) {
+            copy.addBlock(block.copy());
+        }
+        for (Pig pig : pigsList) {
+            copy.addPig(pig.copy());
+        }
+        for (Bird bird : birdsList) {
+            copy.addBird(bird.copy());
+        }
+        return copy;
     }
 
     private void writeObject(ObjectOutputStream out) throws IOException {
@@ -113,7 +154,7 @@ public class LevelSingle implements Serializable {
                 }
             }
         } else {
-            buildLevel(); // Fallback if no saved data
+            template = LevelTemplate.forLevel(levelNum); // Fallback if no saved data
         }
     }
 
@@ -161,176 +202,17 @@ public class LevelSingle implements Serializable {
         return birdsList;
     }
 
-    private void buildLevel() {
-        float baseY = 100f;
-        float blockSize = 50f;
-        float edgeSize = 10f;
-        float pigSize = 35f;
-        float pigYExtra = 10f;
-        float pigXPos = (blockSize - edgeSize * 2 - pigSize) / 2;
-        float pigYPos = edgeSize + pigYExtra;
-
-        switch (levelNum) {
-            case 1:
-                buildLevel1(baseY, blockSize, edgeSize, pigSize, pigXPos, pigYPos);
-                break;
-            case 2:
-                buildLevel2(baseY, blockSize, edgeSize, pigSize, pigXPos, pigYPos);
-                break;
-            case 3:
-                buildLevel3(baseY, blockSize, edgeSize, pigSize, pigXPos, pigYPos);
-                break;
-            default:
-                buildDefaultLevel(baseY, blockSize, edgeSize, pigSize, pigXPos, pigYPos);
-                break;
-        }
-
-        setupBirdsForLevel();
+    /** Layout this level was built from, or null if it wasn't built from one. */
+    public LevelTemplate getTemplate() {
+        return template;
     }
 
-    private void buildLevel1(float baseY, float blockSize, float edgeSize, float pigSize, float pigXPos, float pigYPos) {
-        float startX = Gdx.graphics.getWidth() * 0.65f;
-
-        // Pyramid structure
-        addBlock(new SteelBlock(startX, baseY));
-        addBlock(new SteelBlock(startX + blockSize * 1.2f, baseY));
-        addBlock(new SteelBlock(startX + blockSize * 2.4f, baseY));
-
-        // Second layer
-        addBlock(new GlassBlock(startX + blockSize * 0.6f, baseY + blockSize));
-        addBlock(new GlassBlock(startX + blockSize * 1.8f, baseY + blockSize));
-
-        // Top
-        addBlock(new WoodBlock(startX + blockSize * 1.2f, baseY + blockSize * 2));
-
-        // Pig at the top
-        Pig pig = new Pig(50, PigType.SMALL);
-        pig.setX(startX + blockSize * 1.2f + pigSize/2);
-        pig.setY(baseY + blockSize * 2 + pigSize/2);
-        addPig(pig);
-    }
-
-    private void buildLevel2(float baseY, float blockSize, float edgeSize, float pigSize, float pigXPos, float pigYPos) {
-        float startX = Gdx.graphics.getWidth() * 0.65f;
-
-        // Two towers with pigs
-        // Left tower
-        addBlock(new WoodBlock(startX, baseY));
-        addBlock(new WoodBlock(startX, baseY + blockSize));
-        addBlock(new GlassBlock(startX, baseY + blockSize * 2));
-
-        // Right tower
-        addBlock(new WoodBlock(startX + blockSize * 3, baseY));
-        addBlock(new WoodBlock(startX + blockSize * 3, baseY + blockSize));
-        addBlock(new GlassBlock(startX + blockSize * 3, baseY + blockSize * 2));
-
-        // Bridge between towers
-        addBlock(new SteelBlock(startX + blockSize * 1.5f, baseY + blockSize * 1.5f));
-
-        // Pigs
-        Pig pig1 = new Pig(50, PigType.SMALL);
-        pig1.setX(startX + pigSize/2);
-        pig1.setY(baseY + blockSize * 2 + pigSize);
-        addPig(pig1);
-
-        Pig pig2 = new Pig(50, PigType.MEDIUM);
-        pig2.setX(startX + blockSize * 3 + pigSize/2);
-        pig2.setY(baseY + blockSize * 2 + pigSize);
-        addPig(pig2);
-    }
-
-    private void buildLevel3(float baseY, float blockSize, float edgeSize, float pigSize, float pigXPos, float pigYPos) {
-        float startX = Gdx.graphics.getWidth() * 0.65f;
-
-        // Base platform
-        for(int i = 0; i < 5; i++) {
-            addBlock(new SteelBlock(startX + blockSize * i * 1.2f, baseY));
-        }
-
-        // Middle layer - alternating gaps
-        addBlock(new GlassBlock(startX, baseY + blockSize));
-        addBlock(new GlassBlock(startX + blockSize * 2.4f, baseY + blockSize));
-        addBlock(new GlassBlock(startX + blockSize * 4.8f, baseY + blockSize));
-
-        // Top layer
-        addBlock(new WoodBlock(startX + blockSize * 1.2f, baseY + blockSize * 2));
-        addBlock(new WoodBlock(startX + blockSize * 3.6f, baseY + blockSize * 2));
-
-        // Pigs in the gaps
-        Pig pig1 = new Pig(50, PigType.SMALL);
-        pig1.setX(startX + blockSize * 1.2f + pigSize/2);
-        pig1.setY(baseY + blockSize + pigSize/2);
-        addPig(pig1);
-
-        Pig pig2 = new Pig(50, PigType.MEDIUM);
-        pig2.setX(startX + blockSize * 3.6f + pigSize/2);
-        pig2.setY(baseY + blockSize + pigSize/2);
-        addPig(pig2);
-
-        Pig pig3 = new Pig(50, PigType.LARGE);
-        pig3.setX(startX + blockSize * 2.4f + pigSize/2);
-        pig3.setY(baseY + blockSize * 2 + pigSize/2);
-        addPig(pig3);
-    }
-
-    private void buildDefaultLevel(float baseY, float blockSize, float edgeSize, float pigSize, float pigXPos, float pigYPos) {
-        float startX = Gdx.graphics.getWidth() * 0.65f;
-
-        // Castle-like structure
-        // Base
-        addBlock(new SteelBlock(startX, baseY));
-        addBlock(new SteelBlock(startX + blockSize * 1.2f, baseY));
-        addBlock(new SteelBlock(startX + blockSize * 2.4f, baseY));
-        addBlock(new SteelBlock(startX + blockSize * 3.6f, baseY));
-
-        // Second layer towers
-        addBlock(new GlassBlock(startX, baseY + blockSize));
-        addBlock(new GlassBlock(startX + blockSize * 3.6f, baseY + blockSize));
-
-        // Middle section
-        addBlock(new WoodBlock(startX + blockSize * 1.2f, baseY + blockSize));
-        addBlock(new WoodBlock(startX + blockSize * 2.4f, baseY + blockSize));
-
-        // Top towers
-        addBlock(new GlassBlock(startX, baseY + blockSize * 2));
-        addBlock(new GlassBlock(startX + blockSize * 3.6f, baseY + blockSize * 2));
-
-        // Pigs
-        Pig pig1 = new Pig(50, PigType.SMALL);
-        pig1.setX(startX + blockSize * 1.2f + pigSize/2);
-        pig1.setY(baseY + blockSize + pigSize/2);
-        addPig(pig1);
-
-        Pig pig2 = new Pig(50, PigType.MEDIUM);
-        pig2.setX(startX + blockSize * 2.4f + pigSize/2);
-        pig2.setY(baseY + blockSize + pigSize/2);
-        addPig(pig2);
+    private void buildLevel(float worldWidth) {
+        GameEvents.LevelBuild event = GameEvents.beginLevelBuild(levelNum);
+        template.populate(this, worldWidth);
+        setupBirdsForLevel();
+        GameEvents.end(event, blocksList.size(), pigsList.size(), birdsList.size());
     }
-/*
-    private void buildDefaultLevel(float baseY, float blockSize, float edgeSize, float pigSize, float pigXPos, float pigYPos) {
-        float startX = Gdx.graphics.getWidth() * 0.5f;  // Changed from 0.7f for better spacing
-
-        // Place individual blocks with good spacing for testing
-        addBlock(new WoodBlock(startX, baseY));
-        addBlock(new GlassBlock(startX + blockSize * 2, baseY));
-        addBlock(new SteelBlock(startX + blockSize * 4, baseY));
-
-        // Place pigs with spacing
-        Pig pig1 = new Pig(50, PigType.SMALL);
-        pig1.setX(startX + blockSize * 6);
-        pig1.setY(baseY + pigYPos);
-        addPig(pig1);
-
-        Pig pig2 = new Pig(50, PigType.MEDIUM);
-        pig2.setX(startX + blockSize * 8);
-        pig2.setY(baseY + pigYPos);
-        addPig(pig2);
-
-        Pig pig3 = new Pig(50, PigType.LARGE);
-        pig3.setX(startX + blockSize * 10);
-        pig3.setY(baseY + pigYPos);
-        addPig(pig3);
-    }*/
 
     private void setupBirdsForLevel() {
         List<Bird> availableBirds = LevelsScreen.getAvailableBirdsForLevel(this.levelNum);
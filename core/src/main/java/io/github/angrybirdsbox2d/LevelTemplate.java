@@ -0,0 +1,193 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.utils.IntMap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * The starting layout of a built-in level, in world units. Templates are compiled
+ * from {@code src/main/levels} by {@code LevelCompiler}, loaded from the classpath
+ * once on first use and never change afterwards, so every {@link LevelSingle} of a
+ * level shares one and any thread may read it.
+ * <p>
+ * Block and pig x positions are metres from the level's origin, which sits at a
+ * fraction of the world width; y positions are metres from the bottom of the world.
+ */
+public final class LevelTemplate {
+    public static final int MAGIC = 0x41424C56; // "ABLV"
+    public static final short VERSION = 1;
+    static final String RESOURCE = "/levels.bin";
+    /** Number of the layout used for levels that don't have their own. */
+    public static final int DEFAULT_LEVEL = 0;
+
+    private static IntMap<LevelTemplate> templates;
+
+    private final int number;
+    private final float origin;
+    private final byte[] blockKinds;
+    private final float[] blockX;
+    private final float[] blockY;
+    private final byte[] pigTypes;
+    private final int[] pigHp;
+    private final float[] pigX;
+    private final float[] pigY;
+
+    private LevelTemplate(int number, float origin, byte[] blockKinds, float[] blockX, float[] blockY,
+                          byte[] pigTypes, int[] pigHp, float[] pigX, float[] pigY) {
+        this.number = number;
+        this.origin = origin;
+        this.blockKinds = blockKinds;
+        this.blockX = blockX;
+        this.blockY = blockY;
+        this.pigTypes = pigTypes;
+        this.pigHp = pigHp;
+        this.pigX = pigX;
+        this.pigY = pigY;
+    }
+
+    /** The layout for {@code levelNum}, or the default one if it has none. */
+    public static LevelTemplate forLevel(int levelNum) {
+        IntMap<LevelTemplate> all = templates();
+        LevelTemplate template = all.get(levelNum);
+        return template != null ? template : all.get(DEFAULT_LEVEL);
+    }
+
+    private static synchronized IntMap<LevelTemplate> templates() {
+        if (templates == null) {
+            try (InputStream in = LevelTemplate.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException(RESOURCE + " is missing; run ./gradlew core:compileLevels");
+                }
+                templates = decode(ByteBuffer.wrap(in.readAllBytes()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not load " + RESOURCE, e);
+            }
+        }
+        return templates;
+    }
+
+    static IntMap<LevelTemplate> decode(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a level file");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported level file version " + version);
+            }
+            int count = buffer.getShort();
+            IntMap<LevelTemplate> result = new IntMap<>(count);
+            for (int t = 0; t < count; t++) {
+                int number = buffer.getShort();
+                float origin = buffer.getFloat();
+
+                int blocks = buffer.getShort();
+                byte[] kinds = new byte[blocks];
+                float[] bx = new float[blocks];
+                float[] by = new float[blocks];
+                for (int i = 0; i < blocks; i++) {
+                    kinds[i] = buffer.get();
+                    bx[i] = buffer.getFloat();
+                    by[i] = buffer.getFloat();
+                }
+
+                int pigs = buffer.getShort();
+                byte[] types = new byte[pigs];
+                int[] hp = new int[pigs];
+                float[] px = new float[pigs];
+                float[] py = new float[pigs];
+                for (int i = 0; i < pigs; i++) {
+                    types[i] = buffer.get();
+                    hp[i] = buffer.getInt();
+                    px[i] = buffer.getFloat();
+                    py[i] = buffer.getFloat();
+                }
+                result.put(number, new LevelTemplate(number, origin, kinds, bx, by, types, hp, px, py));
+            }
+            if (!result.containsKey(DEFAULT_LEVEL)) {
+                throw new IOException("Level file has no default layout");
+            }
+            return result;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated level file", e);
+        }
+    }
+
+    /** Adds this layout's blocks and pigs to {@code level}, placed in a world {@code worldWidth} pixels wide. */
+    void populate(LevelSingle level, float worldWidth) {
+        float originX = worldWidth * origin;
+        float ppm = LevelSimulator.PPM;
+        for (int i = 0; i < blockKinds.length; i++) {
+            float x = originX + blockX[i] * ppm;
+            float y = blockY[i] * ppm;
+            switch (blockKinds[i]) {
+                case EntityStore.WOOD:
+                    level.addBlock(new WoodBlock(x, y));
+                    break;
+                case EntityStore.GLASS:
+                    level.addBlock(new GlassBlock(x, y));
+                    break;
+                default:
+                    level.addBlock(new SteelBlock(x, y));
+                    break;
+            }
+        }
+        PigType[] pigTypeValues = PigType.values();
+        for (int i = 0; i < pigTypes.length; i++) {
+            Pig pig = new Pig(pigHp[i], pigTypeValues[pigTypes[i]]);
+            pig.setX(originX + pigX[i] * ppm);
+            pig.setY(pigY[i] * ppm);
+            level.addPig(pig);
+        }
+    }
+
+    /** Level number this layout was written for; {@link #DEFAULT_LEVEL} for the shared one. */
+    public int getNumber() {
+        return number;
+    }
+
+    /** Fraction of the world width where x = 0. */
+    public float getOrigin() {
+        return origin;
+    }
+
+    public int getBlockCount() {
+        return blockKinds.length;
+    }
+
+    /** One of {@link EntityStore#WOOD}, {@link EntityStore#GLASS} or {@link EntityStore#STEEL}. */
+    public int getBlockKind(int i) {
+        return blockKinds[i];
+    }
+
+    public float getBlockX(int i) {
+        return blockX[i];
+    }
+
+    public float getBlockY(int i) {
+        return blockY[i];
+    }
+
+    public int getPigCount() {
+        return pigTypes.length;
+    }
+
+    public PigType getPigType(int i) {
+        return PigType.values()[pigTypes[i]];
+    }
+
+    public int getPigHp(int i) {
+        return pigHp[i];
+    }
+
+    public float getPigX(int i) {
+        return pigX[i];
+    }
+
+    public float getPigY(int i) {
+        return pigY[i];
+    }
+}
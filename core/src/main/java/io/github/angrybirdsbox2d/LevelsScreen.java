@@ -63,6 +63,8 @@ public class LevelsScreen implements Screen {
 
     public LevelsScreen(AngryBirdsGame game) {
         this.game = game;
+        // Start decoding gameplay textures while the player picks a level
+        AssetManager.getInstance().load(AssetManager.GROUP_GAMEPLAY);
         setupScreen();
     }
 
@@ -210,5 +212,6 @@ public class LevelsScreen implements Screen {
         if (uiSkin != null) {
             uiSkin.dispose();
         }
+        AssetManager.getInstance().unload(AssetManager.GROUP_GAMEPLAY);
     }
 }
@@ -0,0 +1,71 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+
+/**
+ * Shown at startup while the UI textures decode on worker threads. Uploads finished
+ * images within a per-frame budget, draws a progress bar, and opens the main menu
+ * once everything is resident.
+ */
+public class LoadingScreen implements Screen {
+    // Nothing else is drawn here, so uploads may take most of a 60 Hz frame
+    private static final long UPLOAD_BUDGET_NANOS = 12_000_000L;
+    private static final float BAR_WIDTH = 0.5f;
+    private static final float BAR_HEIGHT = 24f;
+
+    private final AngryBirdsGame game;
+    private ShapeRenderer shapeRenderer;
+
+    public LoadingScreen(AngryBirdsGame game) {
+        this.game = game;
+        shapeRenderer = new ShapeRenderer();
+    }
+
+    @Override
+    public void show() {}
+
+    @Override
+    public void render(float delta) {
+        boolean done = AssetManager.getInstance().update(UPLOAD_BUDGET_NANOS);
+        float progress = done ? 1f : AssetManager.getInstance().getProgress();
+
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        float width = Gdx.graphics.getWidth() * BAR_WIDTH;
+        float x = (Gdx.graphics.getWidth() - width) / 2;
+        float y = (Gdx.graphics.getHeight() - BAR_HEIGHT) / 2;
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.25f, 0.25f, 0.25f, 1);
+        shapeRenderer.rect(x, y, width, BAR_HEIGHT);
+        shapeRenderer.setColor(0.9f, 0.2f, 0.15f, 1);
+        shapeRenderer.rect(x, y, width * progress, BAR_HEIGHT);
+        shapeRenderer.end();
+
+        if (done) {
+            game.showMainMenu();
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        shapeRenderer.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+    }
+
+    @Override
+    public void pause() {}
+
+    @Override
+    public void resume() {}
+
+    @Override
+    public void hide() {}
+
+    @Override
+    public void dispose() {
+        shapeRenderer.dispose();
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.StringBuilder;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Frame timing overlay. Keeps the last {@link #FRAME_WINDOW} frame times for
+ * percentiles and averages the per-frame phase timings; the text is only rebuilt
+ * every {@link #REFRESH_SECONDS}, so drawing it costs one batch of glyphs.
+ * <p>
+ * Allocation rate is what the render thread allocated, and needs a HotSpot-style
+ * JVM; elsewhere it shows as n/a.
+ */
+public class PerfHud {
+    public static final int FRAME_WINDOW = 240;
+    private static final float REFRESH_SECONDS = 0.5f;
+    private static final float MARGIN = 10f;
+
+    private final BitmapFont font = new BitmapFont();
+    private final StringBuilder text = new StringBuilder(256);
+    private final float[] frameMillis = new float[FRAME_WINDOW];
+    private final float[] sorted = new float[FRAME_WINDOW];
+    private int frameCount;
+    private int nextFrame;
+    private boolean visible;
+
+    private float sinceRefresh;
+    private int windowFrames;
+    private long physicsNanos;
+    private long updateNanos;
+    private long drawNanos;
+    private long stepNanos;
+    private int bodies;
+    private int contacts;
+    private int awake;
+
+    private final com.sun.management.ThreadMXBean allocations;
+    private final long renderThreadId;
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private long lastAllocated = -1;
+    private long lastCollections = -1;
+
+    public PerfHud(boolean visible) {
+        this.visible = visible;
+        font.setColor(Color.WHITE);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        allocations = threads instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+            ? (com.sun.management.ThreadMXBean) threads : null;
+        renderThreadId = Thread.currentThread().getId();
+    }
+
+    /** Records one frame; the phase timings are what this frame spent in each. */
+    public void frame(float delta, long physicsNanos, long updateNanos, long drawNanos) {
+        frameMillis[nextFrame] = delta * 1000f;
+        nextFrame = (nextFrame + 1) % FRAME_WINDOW;
+        frameCount = Math.min(frameCount + 1, FRAME_WINDOW);
+
+        windowFrames++;
+        this.physicsNanos += physicsNanos;
+        this.updateNanos += updateNanos;
+        this.drawNanos += drawNanos;
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_SECONDS) {
+            rebuildText();
+        }
+    }
+
+    /** World statistics shown on the next refresh; {@code contacts} below zero shows as n/a. */
+    public void setWorldStats(long stepNanos, int bodies, int contacts, int awake) {
+        this.stepNanos = stepNanos;
+        this.bodies = bodies;
+        this.contacts = contacts;
+        this.awake = awake;
+    }
+
+    private void rebuildText() {
+        System.arraycopy(frameMillis, 0, sorted, 0, frameCount);
+        Arrays.sort(sorted, 0, frameCount);
+
+        text.setLength(0);
+        text.append("frame p50 ");
+        appendMillis(percentile(0.50f));
+        text.append("  p95 ");
+        appendMillis(percentile(0.95f));
+        text.append("  p99 ");
+        appendMillis(percentile(0.99f));
+        text.append("\nstep ");
+        appendMillis(stepNanos / 1e6f);
+        text.append("  physics ");
+        appendMillis(physicsNanos / 1e6f / windowFrames);
+        text.append("  update ");
+        appendMillis(updateNanos / 1e6f / windowFrames);
+        text.append("  draw ");
+        appendMillis(drawNanos / 1e6f / windowFrames);
+        text.append("\nbodies ").append(bodies).append("  awake ").append(awake).append("  contacts ");
+        if (contacts < 0) {
+            text.append("n/a");
+        } else {
+            text.append(contacts);
+        }
+        text.append("\nalloc ");
+        appendAllocationRate();
+
+        sinceRefresh = 0;
+        windowFrames = 0;
+        physicsNanos = 0;
+        updateNanos = 0;
+        drawNanos = 0;
+    }
+
+    private void appendAllocationRate() {
+        long collections = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            collections += Math.max(0, collector.getCollectionCount());
+        }
+        if (allocations == null) {
+            text.append("n/a");
+        } else {
+            long allocated = allocations.getThreadAllocatedBytes(renderThreadId);
+            if (lastAllocated >= 0) {
+                float kbPerSecond = (allocated - lastAllocated) / 1024f / sinceRefresh;
+                text.append(Math.round(kbPerSecond)).append(" KB/s");
+            } else {
+                text.append("--");
+            }
+            lastAllocated = allocated;
+        }
+        text.append("  gc ").append(lastCollections < 0 ? 0 : collections - lastCollections);
+        lastCollections = collections;
+    }
+
+    private float percentile(float fraction) {
+        if (frameCount == 0) return 0;
+        int index = Math.min(frameCount - 1, (int) (fraction * frameCount));
+        return sorted[index];
+    }
+
+    private void appendMillis(float millis) {
+        // One decimal without going through String.format
+        int tenths = Math.round(millis * 10);
+        text.append(tenths / 10).append('.').append(tenths % 10).append(" ms");
+    }
+
+    /** Draws the overlay in the top-left corner; the batch must not be drawing. */
+    public void draw(SpriteBatch batch, float screenHeight) {
+        if (!visible) return;
+        batch.begin();
+        font.draw(batch, text, MARGIN, screenHeight - MARGIN);
+        batch.end();
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void toggle() {
+        visible = !visible;
+    }
+
+    public void dispose() {
+        font.dispose();
+    }
+}
@@ -106,8 +106,16 @@ public class Pig implements GameObject, Serializable {
         return MIN_VELOCITY;
     }
 
+    public Pig copy() {
+        Pig copy = new Pig(maxHealth, pigType);
+        copy.setHp(hp);
+        copy.setX(x);
+        copy.setY(y);
+        copy.setRotation(rotation);
+        return copy;
+    }
+
     public Texture getTexture() {
-        String textureName = pigType.name().toLowerCase() + "_pig.png";
-        return AssetManager.getInstance().getTexture(textureName);
+        return AssetManager.getInstance().getTexture(pigType.getTextureName());
     }
 }
@@ -3,5 +3,11 @@ package io.github.angrybirdsbox2d;
 import java.io.Serializable;
 
 public enum PigType implements Serializable {
-    SMALL, MEDIUM, LARGE
+    SMALL, MEDIUM, LARGE;
+
+    private final String textureName = name().toLowerCase() + "_pig.png";
+
+    public String getTextureName() {
+        return textureName;
+    }
 }
@@ -0,0 +1,23 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Read-only view of everything the game screen draws: one slot per bird, pig or
+ * block with its last two step transforms. Backed either by the live
+ * {@link EntityStore} or by a {@link WorldSnapshot} published from the simulation thread.
+ * Everything is exposed as primitives, so a snapshot never hands out game objects the
+ * simulation thread may still be changing.
+ */
+public interface RenderState {
+    int size();
+    int getKind(int slot);
+    int getType(int slot); // PigType or BirdType ordinal for pigs and birds, 0 otherwise
+    float getInterpolatedX(int slot, float alpha);
+    float getInterpolatedY(int slot, float alpha);
+    float getInterpolatedRotation(int slot, float alpha);
+    float getHealthFraction(int slot); // 1 when untouched, 0 when destroyed
+
+    /** Appends the slots whose render bounds may overlap the box, in pixels; a few extra are fine. */
+    void collectVisible(float minX, float minY, float maxX, float maxY, IntArray out);
+}
@@ -0,0 +1,153 @@
+package io.github.angrybirdsbox2d;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * A recorded level session: the level layout and world size it started from, then
+ * every input the simulator received, each tagged with the physics step it arrived
+ * before. Feeding the same inputs at the same steps into a fresh simulator replays
+ * the session exactly; see {@link ReplayRunner}.
+ * <p>
+ * The file is a header followed by events that are only ever appended, so a
+ * recording cut short by a crash is still readable up to its last whole event.
+ */
+public class Replay {
+    public static final int MAGIC = 0x41425250; // "ABRP"
+    public static final short VERSION = 1;
+
+    public static final byte BEGIN_AIM = 0;
+    public static final byte UPDATE_AIM = 1;
+    public static final byte END_AIM = 2;
+    public static final byte LAUNCH = 3;
+    public static final byte DETONATE = 4;
+    public static final byte RETIRE_BIRD = 5;
+    public static final byte RESTART = 6;
+
+    private static final int[] ARG_COUNTS = {2, 2, 0, 4, 0, 0, 0};
+
+    private final LevelSingle level;
+    private final float worldWidth;
+    private final float worldHeight;
+    private final float timeStep;
+    private final int eventCount;
+    private final byte[] types;
+    private final int[] steps;
+    private final float[] args; // four per event
+
+    private Replay(LevelSingle level, float worldWidth, float worldHeight, float timeStep,
+                   int eventCount, byte[] types, int[] steps, float[] args) {
+        this.level = level;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.timeStep = timeStep;
+        this.eventCount = eventCount;
+        this.types = types;
+        this.steps = steps;
+        this.args = args;
+    }
+
+    static int argCount(byte type) {
+        return ARG_COUNTS[type];
+    }
+
+    static void putHeader(ByteBuffer buffer, LevelSingle level, float worldWidth, float worldHeight, float timeStep) {
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putFloat(worldWidth);
+        buffer.putFloat(worldHeight);
+        buffer.putFloat(timeStep);
+        SaveCodec.putLevel(buffer, level);
+    }
+
+    static int headerSize(LevelSingle level) {
+        return 4 + 2 + 4 + 4 + 4 + SaveCodec.levelSize(level);
+    }
+
+    public static Replay read(Path path) throws IOException {
+        ByteBuffer buffer = SaveCodec.readFully(path);
+        LevelSingle level;
+        float worldWidth, worldHeight, timeStep;
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a replay: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported replay version " + version);
+            }
+            worldWidth = buffer.getFloat();
+            worldHeight = buffer.getFloat();
+            timeStep = buffer.getFloat();
+            level = SaveCodec.getLevel(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated replay header: " + path, e);
+        }
+
+        // Every event is at least a type and a step, so this bounds the count
+        int capacity = buffer.remaining() / 5;
+        byte[] types = new byte[capacity];
+        int[] steps = new int[capacity];
+        float[] args = new float[capacity * 4];
+        int count = 0;
+        while (buffer.remaining() >= 5) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            if (type < 0 || type >= ARG_COUNTS.length) {
+                throw new IOException("Unknown replay event " + type + " at byte " + start);
+            }
+            int argCount = ARG_COUNTS[type];
+            if (buffer.remaining() < 4 + argCount * 4) break; // torn final event
+            types[count] = type;
+            steps[count] = buffer.getInt();
+            for (int a = 0; a < argCount; a++) {
+                args[count * 4 + a] = buffer.getFloat();
+            }
+            count++;
+        }
+        return new Replay(level, worldWidth, worldHeight, timeStep, count, types, steps, args);
+    }
+
+    /** Fresh simulator in the state the recording started from. */
+    public LevelSimulator newSimulator() {
+        LevelSimulator simulator = new LevelSimulator(level.instantiate(worldWidth), worldWidth, worldHeight);
+        simulator.setTimeStep(timeStep);
+        return simulator;
+    }
+
+    /** The level recorded; instantiate it at {@link #getWorldWidth()} before playing it. */
+    public LevelSingle getLevel() {
+        return level;
+    }
+
+    public float getWorldWidth() {
+        return worldWidth;
+    }
+
+    public float getWorldHeight() {
+        return worldHeight;
+    }
+
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    public byte getType(int event) {
+        return types[event];
+    }
+
+    /** Steps the simulator had taken when the event arrived. */
+    public int getStep(int event) {
+        return steps[event];
+    }
+
+    public float getArg(int event, int index) {
+        return args[event * 4 + index];
+    }
+}
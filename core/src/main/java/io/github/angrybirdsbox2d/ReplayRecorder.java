@@ -0,0 +1,164 @@
+package io.github.angrybirdsbox2d;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Appends a {@link LevelSimulator}'s inputs to a {@link Replay} file. Events are
+ * buffered and handed to a writer when the buffer fills, on every launch and on
+ * close; the file itself is only touched from the writer, so the thread driving the
+ * simulator never waits on the disk. An I/O error stops the recording rather than
+ * the game.
+ * <p>
+ * Not thread safe: call it from whichever thread drives the simulator. The writer
+ * must run tasks one at a time, in order.
+ */
+public class ReplayRecorder {
+    private static final int BUFFER_SIZE = 4096;
+    // Filled buffers waiting for the writer; past this many, new ones are allocated
+    private static final int POOLED_BUFFERS = 4;
+
+    private final Path path;
+    private final Executor writer;
+    private final ArrayBlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private FileChannel channel; // writer only
+    private volatile boolean failed;
+
+    private ReplayRecorder(Path path, Executor writer) {
+        this.path = path;
+        this.writer = writer;
+        for (int i = 1; i < POOLED_BUFFERS; i++) {
+            free.offer(ByteBuffer.allocate(BUFFER_SIZE));
+        }
+    }
+
+    /**
+     * Starts a new recording of {@code level} as it is now; call before the simulator's
+     * first step. File work runs on {@code writer}; pass {@code Runnable::run} to write inline.
+     */
+    public static ReplayRecorder create(Path path, LevelSingle level, float worldWidth, float worldHeight,
+                                        float timeStep, Executor writer) {
+        ReplayRecorder recorder = new ReplayRecorder(path, writer);
+        ByteBuffer header = ByteBuffer.allocate(Replay.headerSize(level));
+        Replay.putHeader(header, level, worldWidth, worldHeight, timeStep);
+        header.flip();
+        writer.execute(() -> recorder.open(header));
+        return recorder;
+    }
+
+    private void open(ByteBuffer header) {
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+            failed = true;
+            return;
+        }
+        write(header);
+    }
+
+    public void beginAim(long step, float x, float y) {
+        event(Replay.BEGIN_AIM, step);
+        buffer.putFloat(x).putFloat(y);
+    }
+
+    public void updateAim(long step, float x, float y) {
+        event(Replay.UPDATE_AIM, step);
+        buffer.putFloat(x).putFloat(y);
+    }
+
+    public void endAim(long step) {
+        event(Replay.END_AIM, step);
+    }
+
+    public void launch(long step, float releaseX, float releaseY, float dragX, float dragY) {
+        event(Replay.LAUNCH, step);
+        buffer.putFloat(releaseX).putFloat(releaseY).putFloat(dragX).putFloat(dragY);
+        flush();
+    }
+
+    public void detonate(long step) {
+        event(Replay.DETONATE, step);
+    }
+
+    public void retireBird(long step) {
+        event(Replay.RETIRE_BIRD, step);
+    }
+
+    public void restart(long step) {
+        event(Replay.RESTART, step);
+    }
+
+    private void event(byte type, long step) {
+        // Largest event: type, step and four floats
+        if (buffer.remaining() < 1 + 4 + 16) {
+            flush();
+        }
+        buffer.put(type).putInt((int) step);
+    }
+
+    /** Hands the buffered events to the writer. */
+    public void flush() {
+        if (buffer.position() == 0) return;
+        if (failed) {
+            buffer.clear();
+            return;
+        }
+        ByteBuffer full = buffer;
+        full.flip();
+        buffer = free.poll();
+        if (buffer == null) {
+            // The writer is behind; don't wait for it
+            buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        writer.execute(() -> recycle(full));
+    }
+
+    private void recycle(ByteBuffer full) {
+        write(full);
+        full.clear();
+        free.offer(full);
+    }
+
+    private void write(ByteBuffer data) {
+        if (failed || channel == null) return;
+        try {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            failed = true;
+            closeChannel();
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /** Flushes what is buffered; the file is closed once the writer gets to it. */
+    public void close() {
+        flush();
+        writer.execute(this::closeChannel);
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        channel = null;
+    }
+}
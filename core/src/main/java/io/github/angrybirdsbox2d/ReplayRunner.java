@@ -0,0 +1,105 @@
+package io.github.angrybirdsbox2d;
+
+/**
+ * Feeds a {@link Replay}'s inputs into a simulator at the steps they were recorded.
+ * Call {@link #applyPending()} right before every {@link LevelSimulator#step()}, from
+ * a game loop or from {@link #runHeadless(int)}, which steps as fast as it can and
+ * keeps track of the slowest step.
+ * <p>
+ * Birds are only retired when the recording says so, so drivers must not call
+ * {@link LevelSimulator#retireStoppedBird()} themselves.
+ */
+public class ReplayRunner {
+    private final Replay replay;
+    private final LevelSimulator simulator;
+    private int next;
+    private int birdsRetired;
+
+    private long steps;
+    private long slowestStepNanos;
+    private long slowestStep;
+
+    public ReplayRunner(Replay replay, LevelSimulator simulator) {
+        this.replay = replay;
+        this.simulator = simulator;
+    }
+
+    /** Applies every event recorded before the simulator's next step. */
+    public void applyPending() {
+        while (next < replay.getEventCount() && replay.getStep(next) <= simulator.getStepCount()) {
+            apply(next++);
+        }
+    }
+
+    private void apply(int event) {
+        switch (replay.getType(event)) {
+            case Replay.BEGIN_AIM:
+                simulator.beginAim(replay.getArg(event, 0), replay.getArg(event, 1));
+                break;
+            case Replay.UPDATE_AIM:
+                simulator.updateAim(replay.getArg(event, 0), replay.getArg(event, 1));
+                break;
+            case Replay.END_AIM:
+                simulator.endAim();
+                break;
+            case Replay.LAUNCH:
+                simulator.launchBird(replay.getArg(event, 0), replay.getArg(event, 1),
+                    replay.getArg(event, 2), replay.getArg(event, 3));
+                break;
+            case Replay.DETONATE:
+                simulator.detonate();
+                break;
+            case Replay.RETIRE_BIRD:
+                if (simulator.retireBird()) {
+                    birdsRetired++;
+                }
+                break;
+            case Replay.RESTART:
+                simulator.restart();
+                break;
+        }
+    }
+
+    /**
+     * Plays the whole recording, then {@code tailSteps} more steps so the last shot can
+     * settle. Returns the number of steps taken.
+     */
+    public long runHeadless(int tailSteps) {
+        long tail = 0;
+        while (!isFinished() || tail++ < tailSteps) {
+            applyPending();
+            long start = System.nanoTime();
+            simulator.step();
+            long elapsed = System.nanoTime() - start;
+            steps++;
+            if (elapsed > slowestStepNanos) {
+                slowestStepNanos = elapsed;
+                slowestStep = simulator.getStepCount();
+            }
+        }
+        return steps;
+    }
+
+    /** True once every recorded event has been applied. */
+    public boolean isFinished() {
+        return next >= replay.getEventCount();
+    }
+
+    /** Birds retired so far; a game screen compares it between frames like a bird count. */
+    public int getBirdsRetired() {
+        return birdsRetired;
+    }
+
+    public LevelSimulator getSimulator() {
+        return simulator;
+    }
+
+    public long getSlowestStepNanos() {
+        return slowestStepNanos;
+    }
+
+    /** Simulator step count right after the slowest step; restarts reset the count. */
+    public long getSlowestStep() {
+        return slowestStep;
+    }
+}
@@ -0,0 +1,446 @@
+package io.github.angrybirdsbox2d;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary save format. A file starts with a fixed {@link #HEADER_SIZE}-byte header
+ * (magic number, format version, save date, current level, level count, star total,
+ * and the length and CRC32 of what follows), then every level. Built-in levels are
+ * stored as their number, rating and lock state and rebuilt from their
+ * {@link LevelTemplate}; any other level carries its layout: materials and types as
+ * ordinals, positions as raw floats, counts as shorts, all big-endian. A save taken
+ * mid-level ends with the current level's live physics state.
+ * <p>
+ * Files written by Java serialization, from before this format existed, are read
+ * through a class allow-list and rewritten in this format.
+ */
+public final class SaveCodec {
+    public static final int MAGIC = 0x41425356; // "ABSV"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+
+    // Header field offsets
+    private static final int VERSION_AT = 4;
+    private static final int HEADER_SIZE_AT = 6;
+    private static final int DATE_AT = 8;
+    private static final int LEVEL_AT = 16;
+    private static final int LEVEL_COUNT_AT = 20;
+    private static final int STARS_AT = 22;
+    private static final int BODY_LENGTH_AT = 24;
+    private static final int CHECKSUM_AT = 28;
+
+    // Tags in front of each level
+    private static final byte TEMPLATE_LEVEL = 0;
+    private static final byte INLINE_LEVEL = 1;
+
+    // First bytes of every Java serialization stream
+    private static final short LEGACY_MAGIC = (short) 0xACED;
+    private static final String LEGACY_FILTER = "maxdepth=16;maxrefs=100000;"
+        + "io.github.angrybirdsbox2d.*;java.util.ArrayList;java.util.Date;java.lang.Enum;java.lang.Object;!*";
+
+    private SaveCodec() {}
+
+    public static ByteBuffer encode(GameSaveData data) {
+        List<LevelSingle> levels = data.getLevelsList();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + bodySize(levels) + 1
+            + (data.getLiveState() != null ? checkpointSize(data.getLiveState()) : 0));
+        buffer.position(HEADER_SIZE);
+        int stars = 0;
+        for (LevelSingle level : levels) {
+            putSavedLevel(buffer, level);
+            stars += level.getRating();
+        }
+        WorldCheckpoint live = data.getLiveState();
+        buffer.put((byte) (live != null ? 1 : 0));
+        if (live != null) {
+            putCheckpoint(buffer, live);
+        }
+        int bodyLength = buffer.position() - HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, bodyLength);
+
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(VERSION_AT, VERSION);
+        buffer.putShort(HEADER_SIZE_AT, (short) HEADER_SIZE);
+        buffer.putLong(DATE_AT, data.getSaveDate().getTime());
+        buffer.putInt(LEVEL_AT, data.getCurrentLevelNumber());
+        buffer.putShort(LEVEL_COUNT_AT, (short) levels.size());
+        buffer.putShort(STARS_AT, (short) stars);
+        buffer.putInt(BODY_LENGTH_AT, bodyLength);
+        buffer.putInt(CHECKSUM_AT, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int bodySize(List<LevelSingle> levels) {
+        int size = 0;
+        for (LevelSingle level : levels) {
+            size += 1 + (level.getTemplate() != null ? 4 + 1 + 1 : levelSize(level));
+        }
+        return size;
+    }
+
+    private static void putSavedLevel(ByteBuffer buffer, LevelSingle level) {
+        if (level.getTemplate() == null) {
+            buffer.put(INLINE_LEVEL);
+            putLevel(buffer, level);
+            return;
+        }
+        buffer.put(TEMPLATE_LEVEL);
+        buffer.putInt(level.getNumber());
+        buffer.put((byte) level.getRating());
+        buffer.put((byte) (level.isUnlocked() ? 1 : 0));
+    }
+
+    private static LevelSingle getSavedLevel(ByteBuffer buffer) throws IOException {
+        byte tag = buffer.get();
+        if (tag == INLINE_LEVEL) {
+            return getLevel(buffer);
+        }
+        if (tag != TEMPLATE_LEVEL) {
+            throw new IOException("Unknown level tag " + tag);
+        }
+        int number = buffer.getInt();
+        int stars = buffer.get();
+        boolean unlocked = buffer.get() != 0;
+        return new LevelSingle(number, stars, unlocked);
+    }
+
+    static int levelSize(LevelSingle level) {
+        return 4 + 1 + 1 + 2 + 2 + 2
+            + level.getBlocks().size() * (1 + 4 + 4)
+            + level.getPigs().size() * (1 + 4 + 4 + 4 + 4)
+            + level.getBirds().size() * (1 + 4 + 4);
+    }
+
+    static void putLevel(ByteBuffer buffer, LevelSingle level) {
+        buffer.putInt(level.getNumber());
+        buffer.put((byte) level.getRating());
+        buffer.put((byte) (level.isUnlocked() ? 1 : 0));
+
+        buffer.putShort((short) level.getBlocks().size());
+        for (Block block : level.getBlocks()) {
+            buffer.put((byte) EntityStore.kindOf(block));
+            buffer.putFloat(block.getX());
+            buffer.putFloat(block.getY());
+        }
+
+        buffer.putShort((short) level.getPigs().size());
+        for (Pig pig : level.getPigs()) {
+            buffer.put((byte) pig.getPigType().ordinal());
+            buffer.putFloat(pig.getX());
+            buffer.putFloat(pig.getY());
+            buffer.putInt(pig.getHp());
+            buffer.putInt(pig.getMaxHealth());
+        }
+
+        buffer.putShort((short) level.getBirds().size());
+        for (Bird bird : level.getBirds()) {
+            buffer.put((byte) bird.getBirdType().ordinal());
+            buffer.putInt(bird.getHp());
+            buffer.putInt(bird.getUnlockLevel());
+        }
+    }
+
+    public static GameSaveData decode(ByteBuffer buffer) throws IOException {
+        try {
+            SaveHeader header = getHeader(buffer);
+            int bodyStart = buffer.position();
+            if (buffer.remaining() < header.getBodyLength()) {
+                throw new IOException("Truncated save");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), buffer.arrayOffset() + bodyStart, header.getBodyLength());
+            if ((int) crc.getValue() != header.getChecksum()) {
+                throw new IOException("Save checksum mismatch");
+            }
+            List<LevelSingle> levels = new ArrayList<>(header.getLevelCount());
+            for (int i = 0; i < header.getLevelCount(); i++) {
+                levels.add(getSavedLevel(buffer));
+            }
+            GameSaveData data = new GameSaveData(levels, header.getCurrentLevelNumber(), header.getSaveDate());
+            if (buffer.get() != 0) {
+                data.setLiveState(getCheckpoint(buffer));
+            }
+            return data;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Truncated or corrupt save", e);
+        }
+    }
+
+    /** Parses the header at the buffer's position and leaves it at the first level. */
+    private static SaveHeader getHeader(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a save file");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported save version " + version);
+        }
+        int headerSize = buffer.getShort(start + HEADER_SIZE_AT);
+        if (headerSize < HEADER_SIZE) {
+            throw new IOException("Corrupt save header");
+        }
+        SaveHeader header = new SaveHeader(version,
+            buffer.getLong(start + DATE_AT),
+            buffer.getInt(start + LEVEL_AT),
+            buffer.getShort(start + LEVEL_COUNT_AT),
+            buffer.getShort(start + STARS_AT),
+            buffer.getInt(start + BODY_LENGTH_AT),
+            buffer.getInt(start + CHECKSUM_AT));
+        buffer.position(start + headerSize);
+        return header;
+    }
+
+    static LevelSingle getLevel(ByteBuffer buffer) throws IOException {
+        int number = buffer.getInt();
+        int stars = buffer.get();
+        boolean unlocked = buffer.get() != 0;
+        LevelSingle level = LevelSingle.createEmpty(number, stars, unlocked);
+
+        int blocks = buffer.getShort();
+        for (int i = 0; i < blocks; i++) {
+            int kind = buffer.get();
+            float x = buffer.getFloat();
+            float y = buffer.getFloat();
+            level.addBlock(createBlock(kind, x, y));
+        }
+
+        int pigs = buffer.getShort();
+        for (int i = 0; i < pigs; i++) {
+            PigType type = PigType.values()[buffer.get()];
+            float x = buffer.getFloat();
+            float y = buffer.getFloat();
+            int hp = buffer.getInt();
+            Pig pig = new Pig(buffer.getInt(), type);
+            pig.setHp(hp);
+            pig.setX(x);
+            pig.setY(y);
+            level.addPig(pig);
+        }
+
+        int birds = buffer.getShort();
+        for (int i = 0; i < birds; i++) {
+            BirdType type = BirdType.values()[buffer.get()];
+            int hp = buffer.getInt();
+            level.addBird(new Bird(hp, type, buffer.getInt()));
+        }
+        return level;
+    }
+
+    private static int checkpointSize(WorldCheckpoint checkpoint) {
+        int size = 4 + 4 + 4;
+        for (int i = 0; i < checkpoint.size(); i++) {
+            size += 1 + 4 + 6 * 4 + 1;
+            if (checkpoint.getKind(i) == EntityStore.PIG) {
+                size += 1 + 4;
+            }
+        }
+        size += checkpoint.getBirdCount() * (1 + 4 + 4);
+        size += 1 + 6 * 4 + 1 + 8;
+        return size;
+    }
+
+    private static void putCheckpoint(ByteBuffer buffer, WorldCheckpoint checkpoint) {
+        buffer.putInt(checkpoint.size());
+        buffer.putInt(checkpoint.getBlockCount());
+        buffer.putInt(checkpoint.getBirdCount());
+        for (int i = 0; i < checkpoint.size(); i++) {
+            int kind = checkpoint.getKind(i);
+            buffer.put((byte) kind);
+            if (kind == EntityStore.PIG) {
+                Pig pig = (Pig) checkpoint.getObject(i);
+                buffer.put((byte) pig.getPigType().ordinal());
+                buffer.putInt(pig.getMaxHealth());
+            }
+            buffer.putFloat(checkpoint.getHealth(i));
+            buffer.putFloat(checkpoint.getBodyX(i));
+            buffer.putFloat(checkpoint.getBodyY(i));
+            buffer.putFloat(checkpoint.getAngle(i));
+            buffer.putFloat(checkpoint.getVelocityX(i));
+            buffer.putFloat(checkpoint.getVelocityY(i));
+            buffer.putFloat(checkpoint.getAngularVelocity(i));
+            buffer.put((byte) (checkpoint.isAwake(i) ? 1 : 0));
+        }
+        for (int i = 0; i < checkpoint.getBirdCount(); i++) {
+            Bird bird = checkpoint.getBird(i);
+            buffer.put((byte) bird.getBirdType().ordinal());
+            buffer.putInt(bird.getHp());
+            buffer.putInt(bird.getUnlockLevel());
+        }
+        buffer.put((byte) (checkpoint.hasBirdInFlight() ? 1 : 0));
+        buffer.putFloat(checkpoint.getBirdX());
+        buffer.putFloat(checkpoint.getBirdY());
+        buffer.putFloat(checkpoint.getBirdAngle());
+        buffer.putFloat(checkpoint.getBirdVelocityX());
+        buffer.putFloat(checkpoint.getBirdVelocityY());
+        buffer.putFloat(checkpoint.getBirdAngularVelocity());
+        buffer.put((byte) (checkpoint.hasBirdExploded() ? 1 : 0));
+        buffer.putLong(checkpoint.getStepCount());
+    }
+
+    private static WorldCheckpoint getCheckpoint(ByteBuffer buffer) throws IOException {
+        int size = buffer.getInt();
+        int blockCount = buffer.getInt();
+        int birdCount = buffer.getInt();
+        if (size < 0 || blockCount < 0 || blockCount > size || birdCount < 0 || size > buffer.remaining()) {
+            throw new IOException("Corrupt live state");
+        }
+        WorldCheckpoint checkpoint = new WorldCheckpoint(size, blockCount, birdCount);
+        for (int i = 0; i < size; i++) {
+            int kind = buffer.get();
+            GameObject obj;
+            if (kind == EntityStore.PIG) {
+                PigType type = PigType.values()[buffer.get()];
+                obj = new Pig(buffer.getInt(), type);
+            } else {
+                obj = createBlock(kind, 0, 0);
+            }
+            float health = buffer.getFloat();
+            if (obj instanceof Pig) {
+                ((Pig) obj).setHp((int) health);
+            } else {
+                ((Block) obj).setHealth(health);
+            }
+            checkpoint.set(i, obj, health, buffer.getFloat(), buffer.getFloat(), buffer.getFloat(),
+                buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.get() != 0);
+        }
+        for (int i = 0; i < birdCount; i++) {
+            BirdType type = BirdType.values()[buffer.get()];
+            int hp = buffer.getInt();
+            checkpoint.setBird(i, new Bird(hp, type, buffer.getInt()));
+        }
+        boolean inFlight = buffer.get() != 0;
+        float x = buffer.getFloat();
+        float y = buffer.getFloat();
+        float angle = buffer.getFloat();
+        float vx = buffer.getFloat();
+        float vy = buffer.getFloat();
+        float omega = buffer.getFloat();
+        boolean exploded = buffer.get() != 0;
+        if (inFlight && birdCount > 0) {
+            checkpoint.setBirdInFlight(x, y, angle, vx, vy, omega, exploded);
+        }
+        checkpoint.setStepCount(buffer.getLong());
+        return checkpoint;
+    }
+
+    private static Block createBlock(int kind, float x, float y) throws IOException {
+        switch (kind) {
+            case EntityStore.WOOD:
+                return new WoodBlock(x, y);
+            case EntityStore.GLASS:
+                return new GlassBlock(x, y);
+            case EntityStore.STEEL:
+                return new SteelBlock(x, y);
+            default:
+                throw new IOException("Unknown block kind " + kind);
+        }
+    }
+
+    /** Writes {@code data} to a temporary file and moves it over {@code path}, so a crash never leaves half a save. */
+    public static long write(Path path, GameSaveData data) throws IOException {
+        return write(path, encode(data));
+    }
+
+    /** Writes a buffer from {@link #encode(GameSaveData)}, consuming it. */
+    public static long write(Path path, ByteBuffer buffer) throws IOException {
+        long size = buffer.remaining();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return size;
+    }
+
+    /** Reads a save; one written by Java serialization is migrated to this format in place. */
+    public static GameSaveData read(Path path) throws IOException {
+        ByteBuffer buffer = readFully(path);
+        if (buffer.remaining() >= 2 && buffer.getShort(0) == LEGACY_MAGIC) {
+            GameSaveData data = readLegacy(buffer);
+            write(path, data);
+            return data;
+        }
+        return decode(buffer);
+    }
+
+    /**
+     * Reads only the fixed header with one positioned read. A Java serialization save
+     * has no header; it is decoded in memory and left as it is on disk until it is loaded.
+     */
+    public static SaveHeader readHeader(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, buffer.position()) < 0) break;
+            }
+        }
+        buffer.flip();
+        if (buffer.remaining() >= 2 && buffer.getShort(0) == LEGACY_MAGIC) {
+            return getHeader(encode(readLegacy(readFully(path))));
+        }
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new IOException("Truncated save header");
+        }
+        return getHeader(buffer);
+    }
+
+    static ByteBuffer readFully(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Save too large: " + size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException(path.toString());
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private static GameSaveData readLegacy(ByteBuffer buffer) throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(buffer.array(), buffer.position(), buffer.remaining());
+        try (ObjectInputStream in = new ObjectInputStream(bytes)) {
+            in.setObjectInputFilter(ObjectInputFilter.Config.createFilter(LEGACY_FILTER));
+            GameSaveData legacy = (GameSaveData) in.readObject();
+            // Built-in levels start over from their templates, as in any pre-template save
+            List<LevelSingle> levels = new ArrayList<>();
+            for (LevelSingle level : legacy.getLevelsList()) {
+                levels.add(new LevelSingle(level.getNumber(), level.getRating(), level.isUnlocked()));
+            }
+            return new GameSaveData(levels, legacy.getCurrentLevelNumber(), legacy.getSaveDate());
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable legacy save", e);
+        }
+    }
+}
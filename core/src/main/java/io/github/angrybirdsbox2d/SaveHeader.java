@@ -0,0 +1,58 @@
+package io.github.angrybirdsbox2d;
+
+import java.util.Date;
+
+/**
+ * Summary of a save, stored at a fixed layout at the front of the file so the load
+ * screen can show a slot with one small read instead of decoding every level.
+ */
+public final class SaveHeader {
+    private final short version;
+    private final long saveTime;
+    private final int currentLevelNumber;
+    private final int levelCount;
+    private final int totalStars;
+    private final int bodyLength;
+    private final int checksum;
+
+    SaveHeader(short version, long saveTime, int currentLevelNumber, int levelCount, int totalStars,
+               int bodyLength, int checksum) {
+        this.version = version;
+        this.saveTime = saveTime;
+        this.currentLevelNumber = currentLevelNumber;
+        this.levelCount = levelCount;
+        this.totalStars = totalStars;
+        this.bodyLength = bodyLength;
+        this.checksum = checksum;
+    }
+
+    public short getVersion() {
+        return version;
+    }
+
+    public Date getSaveDate() {
+        return new Date(saveTime);
+    }
+
+    public int getCurrentLevelNumber() {
+        return currentLevelNumber;
+    }
+
+    public int getLevelCount() {
+        return levelCount;
+    }
+
+    public int getTotalStars() {
+        return totalStars;
+    }
+
+    /** Length in bytes of the level data following the header. */
+    public int getBodyLength() {
+        return bodyLength;
+    }
+
+    /** CRC32 of the level data following the header. */
+    public int getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the save slot files and runs their I/O on a single background thread, so a
+ * slow disk never stalls a frame. Requests run in submission order; results are
+ * delivered on the render thread through {@code Gdx.app.postRunnable}.
+ * <p>
+ * Saves are encoded on the calling thread before being queued, so the game is free
+ * to keep changing its levels while the write is in flight.
+ */
+public class SaveService {
+    // Pending writes get this long to finish when the game exits
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+    private static final String SAVE_PREFIX = "savegame_";
+
+    private static SaveService service;
+
+    /** Receives the outcome of a request on the render thread. */
+    public interface Callback<T> {
+        void done(T result);
+
+        void failed(Exception error);
+    }
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "save-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SaveService() {}
+
+    public static SaveService getInstance() {
+        if (service == null) {
+            service = new SaveService();
+        }
+        return service;
+    }
+
+    public boolean hasSave(int slot) {
+        return slotFile(slot).exists();
+    }
+
+    private static FileHandle slotFile(int slot) {
+        return Gdx.files.local(SAVE_PREFIX + slot + ".sav");
+    }
+
+    /** Snapshots {@code data} now and writes it in the background; the callback gets the bytes written. */
+    public void save(int slot, GameSaveData data, Callback<Long> callback) {
+        ByteBuffer encoded = SaveCodec.encode(data);
+        Path path = slotFile(slot).file().toPath();
+        submit(() -> {
+            GameEvents.SaveIo event = GameEvents.beginSaveIo(GameEvents.IO_SAVE, slot);
+            long size = SaveCodec.write(path, encoded);
+            GameEvents.end(event, size);
+            return size;
+        }, callback);
+    }
+
+    public void load(int slot, Callback<GameSaveData> callback) {
+        Path path = slotFile(slot).file().toPath();
+        submit(() -> {
+            GameEvents.SaveIo event = GameEvents.beginSaveIo(GameEvents.IO_LOAD, slot);
+            GameSaveData data = SaveCodec.read(path);
+            GameEvents.end(event, path.toFile().length());
+            return data;
+        }, callback);
+    }
+
+    public void readHeader(int slot, Callback<SaveHeader> callback) {
+        Path path = slotFile(slot).file().toPath();
+        submit(() -> {
+            GameEvents.SaveIo event = GameEvents.beginSaveIo(GameEvents.IO_SLOT_INFO, slot);
+            SaveHeader header = SaveCodec.readHeader(path);
+            GameEvents.end(event, SaveCodec.HEADER_SIZE);
+            return header;
+        }, callback);
+    }
+
+    /** Queues other background file work, such as replay writes, behind the saves already queued. */
+    public void execute(Runnable task) {
+        io.execute(task);
+    }
+
+    private <T> void submit(Callable<T> task, Callback<T> callback) {
+        io.execute(() -> {
+            try {
+                T result = task.call();
+                Gdx.app.postRunnable(() -> callback.done(result));
+            } catch (Exception e) {
+                Gdx.app.postRunnable(() -> callback.failed(e));
+            }
+        });
+    }
+
+    /** Lets queued writes finish, up to a few seconds, then stops the I/O thread. */
+    public void dispose() {
+        io.shutdown();
+        try {
+            io.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        service = null;
+    }
+}
@@ -2,12 +2,10 @@ package io.github.angrybirdsbox2d;
 
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Screen;
-import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.utils.Timer;
 import static com.badlogic.gdx.scenes.scene2d.actions.Actions.*;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
@@ -16,8 +14,6 @@ import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 
@@ -30,8 +26,12 @@ public class SavedGamesScreen implements Screen {
     private static final float SLOT_WIDTH = 250f;
     private static final float SLOT_HEIGHT = 150f;
     private static final float NAV_BTN_SIZE = 80f;
-    private static final String SAVE_PREFIX = "savegame_";
     private Label.LabelStyle labelStyle;
+    // Set while a save or load is running; further clicks are ignored until it finishes
+    private Table statusPopup;
+    // Results that arrive after the player has left this screen must not switch screens
+    private boolean shown;
+    private boolean disposed;
 
     public SavedGamesScreen(AngryBirdsGame game, boolean saveMode, Screen lastScreen) {
         this.game = game;
@@ -108,8 +108,9 @@ public class SavedGamesScreen implements Screen {
         Label slotLabel = new Label("Slot " + slotNumber, labelStyle);
         slotTable.add(slotLabel).pad(10).row();
 
-        Label infoLabel = new Label(getSlotInfo(slotNumber), labelStyle);
+        Label infoLabel = new Label("Empty Slot", labelStyle);
         slotTable.add(infoLabel).pad(10);
+        showSlotInfo(slotNumber, infoLabel);
 
         slotTable.addListener(new ClickListener() {
             @Override
@@ -121,25 +122,28 @@ public class SavedGamesScreen implements Screen {
         return slotTable;
     }
 
-    private String getSlotInfo(int slot) {
-        try {
-            FileHandle file = Gdx.files.local(SAVE_PREFIX + slot + ".sav");
-            if (file.exists()) {
-                ObjectInputStream in = new ObjectInputStream(file.read());
-                GameSaveData saveData = (GameSaveData)in.readObject();
-                in.close();
-
+    private void showSlotInfo(int slot, final Label infoLabel) {
+        if (!SaveService.getInstance().hasSave(slot)) return;
+        infoLabel.setText("Reading...");
+        SaveService.getInstance().readHeader(slot, new SaveService.Callback<SaveHeader>() {
+            @Override
+            public void done(SaveHeader header) {
                 SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy HH:mm");
-                return "Saved: " + sdf.format(saveData.getSaveDate()) +
-                    "\nLevel: " + saveData.getCurrentLevelNumber();
+                infoLabel.setText("Saved: " + sdf.format(header.getSaveDate()) +
+                    "\nLevel: " + header.getCurrentLevelNumber() +
+                    "\nStars: " + header.getTotalStars());
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return "Empty Slot";
+
+            @Override
+            public void failed(Exception error) {
+                error.printStackTrace();
+                infoLabel.setText("Empty Slot");
+            }
+        });
     }
 
     private void handleSlotClick(int slot) {
+        if (statusPopup != null) return;
         if (saveMode) {
             saveGame(slot);
         } else {
@@ -148,52 +152,81 @@ public class SavedGamesScreen implements Screen {
     }
 
     private void saveGame(int slot) {
-        try {
-            int currentLevelNumber = 1;
-            if (lastScreen instanceof GameScreen) {
-                GameScreen gameScreen = (GameScreen)lastScreen;
-                currentLevelNumber = gameScreen.getCurrentLevel().getNumber();
-            }
+        int currentLevelNumber = 1;
+        if (lastScreen instanceof GameScreen) {
+            GameScreen gameScreen = (GameScreen)lastScreen;
+            currentLevelNumber = gameScreen.getCurrentLevel().getNumber();
+        }
 
-            GameSaveData saveData = new GameSaveData(
-                LevelsScreen.gameLevels,
-                currentLevelNumber
-            );
+        GameSaveData saveData = new GameSaveData(
+            LevelsScreen.gameLevels,
+            currentLevelNumber
+        );
+        if (lastScreen instanceof GameScreen) {
+            // Saved mid-level, so keep the scene exactly as it is, bird in flight included
+            saveData.setLiveState(((GameScreen) lastScreen).captureLiveState());
+        }
 
-            FileHandle file = Gdx.files.local(SAVE_PREFIX + slot + ".sav");
-            ObjectOutputStream out = new ObjectOutputStream(file.write(false));
-            out.writeObject(saveData);
-            out.close();
+        statusPopup = showMessage("Saving...");
+        SaveService.getInstance().save(slot, saveData, new SaveService.Callback<Long>() {
+            @Override
+            public void done(Long size) {
+                if (disposed) return;
+                finishStatus();
+                if (shown && lastScreen instanceof GameScreen) {
+                    returnToGame((GameScreen) lastScreen);
+                } else {
+                    fadeOutMessage(showMessage("Game Saved Successfully!"));
+                }
+            }
 
-            showSaveSuccess();
-            returnToGame();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+            @Override
+            public void failed(Exception error) {
+                error.printStackTrace();
+                if (disposed) return;
+                finishStatus();
+                fadeOutMessage(showMessage("Save Failed"));
+            }
+        });
     }
 
     private void loadGame(int slot) {
-        try {
-            FileHandle file = Gdx.files.local(SAVE_PREFIX + slot + ".sav");
-            if (file.exists()) {
-                ObjectInputStream in = new ObjectInputStream(file.read());
-                GameSaveData saveData = (GameSaveData)in.readObject();
-                in.close();
+        if (!SaveService.getInstance().hasSave(slot)) return;
 
+        statusPopup = showMessage("Loading...");
+        SaveService.getInstance().load(slot, new SaveService.Callback<GameSaveData>() {
+            @Override
+            public void done(GameSaveData saveData) {
+                if (disposed) return;
+                finishStatus();
+                if (!shown) return;
                 LevelsScreen.gameLevels = new ArrayList<>(saveData.getLevelsList());
-                game.setScreen(new LevelsScreen(game));
+                int levelIndex = saveData.getCurrentLevelNumber() - 1;
+                if (saveData.getLiveState() != null && levelIndex >= 0 && levelIndex < LevelsScreen.gameLevels.size()) {
+                    GameScreen gameScreen = new GameScreen(game, LevelsScreen.gameLevels.get(levelIndex));
+                    gameScreen.restoreLiveState(saveData.getLiveState());
+                    game.setScreen(gameScreen);
+                } else {
+                    game.setScreen(new LevelsScreen(game));
+                }
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+
+            @Override
+            public void failed(Exception error) {
+                error.printStackTrace();
+                if (disposed) return;
+                finishStatus();
+                fadeOutMessage(showMessage("Load Failed"));
+            }
+        });
     }
 
-    private void showSaveSuccess() {
+    private Table showMessage(String text) {
         Table popup = new Table();
         popup.setFillParent(true);
         popup.bottom();
 
-        Label msg = new Label("Game Saved Successfully!", labelStyle);
+        Label msg = new Label(text, labelStyle);
         msg.setFontScale(1.5f);
 
         Table bgTable = new Table();
@@ -203,35 +236,32 @@ public class SavedGamesScreen implements Screen {
 
         popup.add(bgTable).padBottom(50);
         uiStage.addActor(popup);
+        return popup;
+    }
 
+    private void fadeOutMessage(Table popup) {
         popup.getColor().a = 1f;
         popup.addAction(sequence(delay(2f), fadeOut(1f), removeActor()));
     }
 
-    private void returnToGame() {
-        Timer.schedule(new Timer.Task() {
-            @Override
-            public void run() {
-                if (lastScreen instanceof GameScreen) {
-                    GameScreen gameScreen = (GameScreen) lastScreen;
-                    game.setScreen(gameScreen, false);
-                    if (!gameScreen.isPaused()) {
-                        gameScreen.togglePause();
-                    }
-                    Gdx.input.setInputProcessor(gameScreen.getPauseMenu().getStage());
-                }
-            }
-        }, 3);
+    private void finishStatus() {
+        statusPopup.remove();
+        statusPopup = null;
+    }
+
+    private void returnToGame(GameScreen gameScreen) {
+        // Switching without disposing skips hide(), so mark this screen as left here
+        shown = false;
+        game.setScreen(gameScreen, false);
+        if (!gameScreen.isPaused()) {
+            gameScreen.togglePause();
+        }
+        Gdx.input.setInputProcessor(gameScreen.getPauseMenu().getStage());
     }
 
     private void handleBackButton() {
         if (lastScreen instanceof GameScreen) {
-            GameScreen gameScreen = (GameScreen) lastScreen;
-            game.setScreen(gameScreen, false);
-            if (!gameScreen.isPaused()) {
-                gameScreen.togglePause();
-            }
-            Gdx.input.setInputProcessor(gameScreen.getPauseMenu().getStage());
+            returnToGame((GameScreen) lastScreen);
         } else {
             game.setScreen(new MainMenuScreen(game));
         }
@@ -239,6 +269,7 @@ public class SavedGamesScreen implements Screen {
 
     @Override
     public void show() {
+        shown = true;
         Gdx.input.setInputProcessor(uiStage);
     }
 
@@ -264,11 +295,13 @@ public class SavedGamesScreen implements Screen {
 
     @Override
     public void hide() {
+        shown = false;
         Gdx.input.setInputProcessor(null);
     }
 
     @Override
     public void dispose() {
+        disposed = true;
         uiStage.dispose();
         if (uiSkin != null) {
             uiSkin.dispose();
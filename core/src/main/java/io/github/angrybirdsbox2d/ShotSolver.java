@@ -0,0 +1,276 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Sweeps launch angle x drag distance over a level and reports what each shot
+ * sequence achieves. Candidates are fanned out over a ForkJoinPool, and every
+ * candidate replays its shots in a fresh {@link LevelSimulator} built from a copy
+ * of the level, so workers never share a Box2D world.
+ */
+public class ShotSolver {
+    public static final int DEFAULT_MAX_STEPS_PER_SHOT = 60 * 20;
+    private static final int SEQUENTIAL_THRESHOLD = 4;
+
+    private final LevelSingle level;
+    private final ForkJoinPool pool;
+    private final float worldWidth;
+    private final float worldHeight;
+
+    private float minAngle = 0f;
+    private float maxAngle = 80f;
+    private int angleSteps = 41;
+    private float minDistance = 30f;
+    private int distanceSteps = 8;
+    private int beamWidth = 8;
+    private int maxStepsPerShot = DEFAULT_MAX_STEPS_PER_SHOT;
+
+    public ShotSolver(LevelSingle level) {
+        this(level, LevelSimulator.DEFAULT_WORLD_WIDTH, LevelSimulator.DEFAULT_WORLD_HEIGHT,
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    public ShotSolver(LevelSingle level, float worldWidth, float worldHeight, int parallelism) {
+        this.level = level.instantiate(worldWidth);
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public static class Shot {
+        private final float angle;
+        private final float distance;
+
+        public Shot(float angle, float distance) {
+            this.angle = angle;
+            this.distance = Math.min(distance, LevelSimulator.MAX_DRAG_DISTANCE);
+        }
+
+        /** Launch angle in degrees above the horizontal. */
+        public float getAngle() {
+            return angle;
+        }
+
+        /** Pull on the sling in pixels, already clamped to MAX_DRAG_DISTANCE. */
+        public float getDistance() {
+            return distance;
+        }
+
+        // The sling is pulled opposite to the direction of flight
+        public float getDragX() {
+            return -MathUtils.cosDeg(angle) * distance;
+        }
+
+        public float getDragY() {
+            return -MathUtils.sinDeg(angle) * distance;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f deg @ %.0fpx", angle, distance);
+        }
+    }
+
+    public static class Result {
+        private final List<Shot> shots;
+        private final int pigsKilled;
+        private final int pigsRemaining;
+        private final int blocksDestroyed;
+        private final int stars;
+
+        Result(List<Shot> shots, int pigsKilled, int pigsRemaining, int blocksDestroyed, int stars) {
+            this.shots = Collections.unmodifiableList(shots);
+            this.pigsKilled = pigsKilled;
+            this.pigsRemaining = pigsRemaining;
+            this.blocksDestroyed = blocksDestroyed;
+            this.stars = stars;
+        }
+
+        public List<Shot> getShots() { return shots; }
+        public int getPigsKilled() { return pigsKilled; }
+        public int getPigsRemaining() { return pigsRemaining; }
+        public int getBlocksDestroyed() { return blocksDestroyed; }
+        public int getStars() { return stars; }
+
+        /** True when this result is at least as good on every axis and better on one. */
+        boolean dominates(Result other) {
+            boolean notWorse = pigsKilled >= other.pigsKilled &&
+                blocksDestroyed >= other.blocksDestroyed &&
+                shots.size() <= other.shots.size();
+            boolean better = pigsKilled > other.pigsKilled ||
+                blocksDestroyed > other.blocksDestroyed ||
+                shots.size() < other.shots.size();
+            return notWorse && better;
+        }
+
+        @Override
+        public String toString() {
+            return "pigs=" + pigsKilled + " blocks=" + blocksDestroyed + " stars=" + stars + " shots=" + shots;
+        }
+    }
+
+    /** Evaluates a single shot sequence on a fresh copy of the level. */
+    public Result evaluate(List<Shot> shots) {
+        LevelSingle run = level.copy();
+        int pigsAtStart = run.getPigs().size();
+        int blocksAtStart = run.getBlocks().size();
+        int birdsAtStart = run.getBirds().size();
+
+        LevelSimulator simulator = new LevelSimulator(run, worldWidth, worldHeight);
+        List<Shot> fired = new ArrayList<>(shots.size());
+        try {
+            for (Shot shot : shots) {
+                if (run.getPigs().isEmpty()) break;
+                if (!simulator.launchFromSling(shot.getDragX(), shot.getDragY())) break;
+                fired.add(shot);
+                simulator.runUntilBirdRetired(maxStepsPerShot);
+            }
+        } finally {
+            simulator.dispose();
+        }
+
+        int pigsRemaining = run.getPigs().size();
+        int birdsUsed = birdsAtStart - run.getBirds().size();
+        int stars = pigsRemaining == 0 ? LevelSimulator.starsForBirdsUsed(birdsUsed) : 0;
+        return new Result(fired, pigsAtStart - pigsRemaining, pigsRemaining,
+            blocksAtStart - run.getBlocks().size(), stars);
+    }
+
+    /**
+     * Searches shot sequences one bird at a time. Every grid shot is tried after each
+     * of the best {@code beamWidth} prefixes found so far; sequences that clear the
+     * level are not extended. Returns the Pareto front over pigs killed, blocks
+     * destroyed and shots used, best first.
+     */
+    public List<Result> solve() {
+        List<Shot> grid = buildGrid();
+        List<Result> all = new ArrayList<>();
+        List<List<Shot>> prefixes = new ArrayList<>();
+        prefixes.add(Collections.emptyList());
+
+        int birds = level.getBirds().size();
+        for (int depth = 0; depth < birds && !prefixes.isEmpty(); depth++) {
+            List<List<Shot>> candidates = new ArrayList<>(prefixes.size() * grid.size());
+            for (List<Shot> prefix : prefixes) {
+                for (Shot shot : grid) {
+                    List<Shot> sequence = new ArrayList<>(prefix.size() + 1);
+                    sequence.addAll(prefix);
+                    sequence.add(shot);
+                    candidates.add(sequence);
+                }
+            }
+
+            List<Result> results = pool.invoke(new EvaluateTask(candidates, 0, candidates.size()));
+            all.addAll(results);
+
+            prefixes = new ArrayList<>();
+            for (Result result : paretoFront(results)) {
+                if (prefixes.size() >= beamWidth) break;
+                if (result.getPigsRemaining() > 0 && result.getShots().size() == depth + 1) {
+                    prefixes.add(result.getShots());
+                }
+            }
+        }
+        return paretoFront(all);
+    }
+
+    private List<Shot> buildGrid() {
+        List<Shot> grid = new ArrayList<>(angleSteps * distanceSteps);
+        for (int a = 0; a < angleSteps; a++) {
+            float angle = angleSteps == 1 ? minAngle : minAngle + (maxAngle - minAngle) * a / (angleSteps - 1);
+            for (int d = 0; d < distanceSteps; d++) {
+                float distance = distanceSteps == 1 ? LevelSimulator.MAX_DRAG_DISTANCE :
+                    minDistance + (LevelSimulator.MAX_DRAG_DISTANCE - minDistance) * d / (distanceSteps - 1);
+                grid.add(new Shot(angle, distance));
+            }
+        }
+        return grid;
+    }
+
+    static List<Result> paretoFront(List<Result> results) {
+        List<Result> front = new ArrayList<>();
+        for (Result candidate : results) {
+            boolean dominated = false;
+            for (Result other : results) {
+                if (other.dominates(candidate)) {
+                    dominated = true;
+                    break;
+                }
+            }
+            if (!dominated) {
+                front.add(candidate);
+            }
+        }
+        front.sort((a, b) -> {
+            if (a.stars != b.stars) return b.stars - a.stars;
+            if (a.pigsKilled != b.pigsKilled) return b.pigsKilled - a.pigsKilled;
+            if (a.blocksDestroyed != b.blocksDestroyed) return b.blocksDestroyed - a.blocksDestroyed;
+            return a.shots.size() - b.shots.size();
+        });
+        return front;
+    }
+
+    private class EvaluateTask extends RecursiveTask<List<Result>> {
+        private final List<List<Shot>> candidates;
+        private final int from;
+        private final int to;
+
+        EvaluateTask(List<List<Shot>> candidates, int from, int to) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Result> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                List<Result> results = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    results.add(evaluate(candidates.get(i)));
+                }
+                return results;
+            }
+
+            int mid = (from + to) >>> 1;
+            EvaluateTask left = new EvaluateTask(candidates, from, mid);
+            left.fork();
+            List<Result> results = new EvaluateTask(candidates, mid, to).compute();
+            List<Result> leftResults = left.join();
+            leftResults.addAll(results);
+            return leftResults;
+        }
+    }
+
+    public ShotSolver setAngleRange(float minAngle, float maxAngle, int steps) {
+        this.minAngle = minAngle;
+        this.maxAngle = maxAngle;
+        this.angleSteps = Math.max(1, steps);
+        return this;
+    }
+
+    public ShotSolver setDistanceRange(float minDistance, int steps) {
+        this.minDistance = Math.min(minDistance, LevelSimulator.MAX_DRAG_DISTANCE);
+        this.distanceSteps = Math.max(1, steps);
+        return this;
+    }
+
+    public ShotSolver setBeamWidth(int beamWidth) {
+        this.beamWidth = Math.max(1, beamWidth);
+        return this;
+    }
+
+    public ShotSolver setMaxStepsPerShot(int maxStepsPerShot) {
+        this.maxStepsPerShot = maxStepsPerShot;
+        return this;
+    }
+
+    public void dispose() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.angrybirdsbox2d;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link LevelSimulator} on its own thread at a fixed step rate, so heavy
+ * collapses can't stall frame submission. The world is only ever touched from
+ * that thread: input reaches it through a lock-free command ring, and state comes
+ * back as a {@link WorldSnapshot} after every step. While the thread runs, transforms
+ * are not mirrored onto the level's game objects; they are brought up to date when
+ * it stops.
+ * <p>
+ * Snapshots rotate through three buffers: one the simulation is writing, one the
+ * render thread is reading, and the latest finished one waiting in between. The
+ * two sides swap through a single atomic exchange, so neither ever waits on the other.
+ */
+public class SimulationThread implements Runnable {
+    // After a stall, drop the backlog instead of fast-forwarding through it
+    private static final long MAX_LAG_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final LevelSimulator simulator;
+
+    // Input commands go through a preallocated ring of primitive slots. The render thread
+    // is its only writer and the simulation thread its only reader, so each side owns one
+    // counter and sending a command allocates nothing.
+    private static final int BEGIN_AIM = 0;
+    private static final int UPDATE_AIM = 1;
+    private static final int END_AIM = 2;
+    private static final int LAUNCH = 3;
+    private static final int DETONATE = 4;
+    private static final int COMMAND_CAPACITY = 256; // a power of two
+    private static final int COMMAND_ARGS = 4;
+    private final int[] commandTypes = new int[COMMAND_CAPACITY];
+    private final float[] commandArgs = new float[COMMAND_CAPACITY * COMMAND_ARGS];
+    private final AtomicLong commandsRead = new AtomicLong();    // simulation thread writes
+    private final AtomicLong commandsWritten = new AtomicLong(); // render thread writes
+
+    private final AtomicReference<WorldSnapshot> handoff;
+    private final AtomicLong published = new AtomicLong();
+    private WorldSnapshot back;   // simulation thread only
+    private WorldSnapshot front;  // render thread only
+
+    private volatile boolean running;
+    private volatile boolean paused;
+    private Thread thread;
+    private long sequence;
+    private int birdsRetired;
+    private int launchesHandled;
+    private boolean lastLaunchAccepted;
+
+    public SimulationThread(LevelSimulator simulator) {
+        this.simulator = simulator;
+
+        long now = System.nanoTime();
+        back = new WorldSnapshot();
+        front = new WorldSnapshot();
+        WorldSnapshot latest = new WorldSnapshot();
+        back.capture(simulator, 0, 0, 0, false, now);
+        front.capture(simulator, 0, 0, 0, false, now);
+        latest.capture(simulator, 0, 0, 0, false, now);
+        handoff = new AtomicReference<>(latest);
+    }
+
+    public void start() {
+        simulator.getEntities().setSyncObjects(false);
+        running = true;
+        thread = new Thread(this, "box2d-simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops the loop and waits for it, after which the simulator may be used from the caller again. */
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        simulator.getEntities().setSyncObjects(true);
+    }
+
+    @Override
+    public void run() {
+        long stepNanos = (long) (simulator.getTimeStep() * TimeUnit.SECONDS.toNanos(1));
+        long next = System.nanoTime();
+
+        while (running) {
+            processCommands();
+            if (!paused) {
+                simulator.step();
+                if (simulator.retireStoppedBird()) {
+                    birdsRetired++;
+                }
+                publish();
+            }
+
+            next += stepNanos;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            } else if (wait < -MAX_LAG_NANOS) {
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    private void processCommands() {
+        long read = commandsRead.get();
+        long written = commandsWritten.get();
+        for (; read < written; read++) {
+            int slot = (int) read & (COMMAND_CAPACITY - 1);
+            int arg = slot * COMMAND_ARGS;
+            switch (commandTypes[slot]) {
+                case BEGIN_AIM:
+                    simulator.beginAim(commandArgs[arg], commandArgs[arg + 1]);
+                    break;
+                case UPDATE_AIM:
+                    simulator.updateAim(commandArgs[arg], commandArgs[arg + 1]);
+                    break;
+                case END_AIM:
+                    simulator.endAim();
+                    break;
+                case LAUNCH:
+                    lastLaunchAccepted = simulator.launchBird(commandArgs[arg], commandArgs[arg + 1],
+                        commandArgs[arg + 2], commandArgs[arg + 3]);
+                    launchesHandled++;
+                    break;
+                case DETONATE:
+                    simulator.detonate();
+                    break;
+            }
+        }
+        commandsRead.lazySet(read);
+    }
+
+    private void send(int type, float x, float y, float dragX, float dragY) {
+        long written = commandsWritten.get();
+        while (written - commandsRead.get() >= COMMAND_CAPACITY) {
+            // Only full if the simulation has stalled; a newer aim update always follows a dropped one
+            if (type == UPDATE_AIM || !running) return;
+            Thread.onSpinWait();
+        }
+        int slot = (int) written & (COMMAND_CAPACITY - 1);
+        int arg = slot * COMMAND_ARGS;
+        commandTypes[slot] = type;
+        commandArgs[arg] = x;
+        commandArgs[arg + 1] = y;
+        commandArgs[arg + 2] = dragX;
+        commandArgs[arg + 3] = dragY;
+        commandsWritten.lazySet(written + 1);
+    }
+
+    private void publish() {
+        sequence++;
+        back.capture(simulator, sequence, birdsRetired, launchesHandled, lastLaunchAccepted, System.nanoTime());
+        back = handoff.getAndSet(back);
+        published.set(sequence);
+    }
+
+    /** Latest published snapshot. Render thread only. */
+    public WorldSnapshot latest() {
+        if (published.get() != front.getSequence()) {
+            front = handoff.getAndSet(front);
+        }
+        return front;
+    }
+
+    public void beginAim(float x, float y) {
+        send(BEGIN_AIM, x, y, 0, 0);
+    }
+
+    public void updateAim(float x, float y) {
+        send(UPDATE_AIM, x, y, 0, 0);
+    }
+
+    public void endAim() {
+        send(END_AIM, 0, 0, 0, 0);
+    }
+
+    public void launchBird(float releaseX, float releaseY, float dragX, float dragY) {
+        send(LAUNCH, releaseX, releaseY, dragX, dragY);
+    }
+
+    public void detonate() {
+        send(DETONATE, 0, 0, 0, 0);
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+}
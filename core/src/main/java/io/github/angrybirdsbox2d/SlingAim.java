@@ -0,0 +1,111 @@
+package io.github.angrybirdsbox2d;
+
+/**
+ * Where the sling sits on screen and how far the player has pulled it, in pixels.
+ * GameScreen's touch handlers and the band it draws both work from here; nothing in
+ * it touches GL, so the allocation check drives the same code headless.
+ */
+public class SlingAim {
+    /** Rubber strands drawn per frame: three from each post to the pulled bird */
+    public static final int BAND_STRANDS = 6;
+    private static final float STRAND_SPACING = 1.5f;
+
+    private float x, y, width, height;
+    private float anchorX, anchorY;
+    private float dragX, dragY;
+    private boolean dragging;
+
+    /** Places the sling sprite; the bird rests, and is pulled from, 60% of the way across and up. */
+    public void setBounds(float x, float y, float width, float height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        anchorX = x + width * 0.6f;
+        anchorY = y + height * 0.6f;
+    }
+
+    /** Starts a pull if the touch lands within a sling's width of the anchor. */
+    public boolean press(float touchX, float touchY) {
+        float dx = touchX - anchorX;
+        float dy = touchY - anchorY;
+        if (dx * dx + dy * dy >= width * width) return false;
+        dragging = true;
+        dragX = touchX;
+        dragY = touchY;
+        return true;
+    }
+
+    /** Follows the touch, held within {@link LevelSimulator#MAX_DRAG_DISTANCE} of the anchor. */
+    public void drag(float touchX, float touchY) {
+        float pullX = touchX - anchorX;
+        float pullY = touchY - anchorY;
+        float distance = (float) Math.sqrt(pullX * pullX + pullY * pullY);
+        if (distance > LevelSimulator.MAX_DRAG_DISTANCE) {
+            float scale = LevelSimulator.MAX_DRAG_DISTANCE / distance;
+            pullX *= scale;
+            pullY *= scale;
+        }
+        dragX = anchorX + pullX;
+        dragY = anchorY + pullY;
+    }
+
+    public void release() {
+        dragging = false;
+    }
+
+    public boolean isDragging() {
+        return dragging;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    public float getAnchorX() {
+        return anchorX;
+    }
+
+    public float getAnchorY() {
+        return anchorY;
+    }
+
+    public float getDragX() {
+        return dragX;
+    }
+
+    public float getDragY() {
+        return dragY;
+    }
+
+    /** The pull as the simulator takes it: release point minus anchor. */
+    public float getPullX() {
+        return dragX - anchorX;
+    }
+
+    public float getPullY() {
+        return dragY - anchorY;
+    }
+
+    /** Where a strand leaves its post; strands 0-2 hang from the left post, 3-5 from the right. */
+    public float getBandStartX(int strand) {
+        float post = strand < 3 ? 0.25f : 0.75f;
+        return x + width * post + (strand % 3 - 1) * STRAND_SPACING;
+    }
+
+    public float getBandStartY() {
+        return y + height * 0.75f;
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+import java.util.Arrays;
+
+/**
+ * Sparse uniform grid of integer ids keyed by the cell their centre falls in. Cells
+ * are created on first use, so the grid has no fixed bounds and levels can be any
+ * size. Each id lives in exactly one cell; queries widen the box by the largest
+ * extent inserted so far, so objects straddling a cell edge are still found.
+ * <p>
+ * Moving an id is O(1): every id remembers its cell and its index inside it.
+ */
+public class SpatialGrid {
+    private final float cellSize;
+    private final LongMap<IntArray> cells = new LongMap<>();
+    private IntArray[] cellOf = new IntArray[64];
+    private int[] indexInCell = new int[64];
+    private long[] keyOf = new long[64];
+    private float maxExtent;
+
+    public SpatialGrid(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    /** Adds {@code id} centred at {@code (x, y)}; {@code extent} is the farthest its bounds reach from the centre. */
+    public void insert(int id, float x, float y, float extent) {
+        ensureCapacity(id + 1);
+        maxExtent = Math.max(maxExtent, extent);
+        place(id, key(cell(x), cell(y)));
+    }
+
+    /** Moves {@code id} to {@code (x, y)}; does nothing unless it changed cell. */
+    public void update(int id, float x, float y) {
+        long key = key(cell(x), cell(y));
+        if (keyOf[id] == key && cellOf[id] != null) return;
+        remove(id);
+        place(id, key);
+    }
+
+    public void remove(int id) {
+        IntArray cell = cellOf[id];
+        if (cell == null) return;
+        int index = indexInCell[id];
+        int last = cell.pop();
+        if (last != id) {
+            cell.set(index, last);
+            indexInCell[last] = index;
+        }
+        cellOf[id] = null;
+    }
+
+    /** Gives the entry stored under {@code from} the id {@code to}, e.g. after a swap-remove. */
+    public void rename(int from, int to) {
+        IntArray cell = cellOf[from];
+        if (cell == null) return;
+        ensureCapacity(to + 1);
+        cell.set(indexInCell[from], to);
+        cellOf[to] = cell;
+        indexInCell[to] = indexInCell[from];
+        keyOf[to] = keyOf[from];
+        cellOf[from] = null;
+    }
+
+    /** Appends to {@code out} every id whose bounds may overlap the box; may include a few that don't. */
+    public void query(float minX, float minY, float maxX, float maxY, IntArray out) {
+        int fromX = cell(minX - maxExtent);
+        int fromY = cell(minY - maxExtent);
+        int toX = cell(maxX + maxExtent);
+        int toY = cell(maxY + maxExtent);
+        for (int cx = fromX; cx <= toX; cx++) {
+            for (int cy = fromY; cy <= toY; cy++) {
+                IntArray cell = cells.get(key(cx, cy));
+                if (cell != null) {
+                    out.addAll(cell);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        for (IntArray cell : cells.values()) {
+            cell.clear();
+        }
+        Arrays.fill(cellOf, null);
+        maxExtent = 0;
+    }
+
+    private void place(int id, long key) {
+        IntArray cell = cells.get(key);
+        if (cell == null) {
+            cell = new IntArray(false, 8);
+            cells.put(key, cell);
+        }
+        cellOf[id] = cell;
+        indexInCell[id] = cell.size;
+        keyOf[id] = key;
+        cell.add(id);
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= cellOf.length) return;
+        int size = Math.max(capacity, cellOf.length * 2);
+        IntArray[] newCellOf = new IntArray[size];
+        System.arraycopy(cellOf, 0, newCellOf, 0, cellOf.length);
+        cellOf = newCellOf;
+        int[] newIndex = new int[size];
+        System.arraycopy(indexInCell, 0, newIndex, 0, indexInCell.length);
+        indexInCell = newIndex;
+        long[] newKeys = new long[size];
+        System.arraycopy(keyOf, 0, newKeys, 0, keyOf.length);
+        keyOf = newKeys;
+    }
+}
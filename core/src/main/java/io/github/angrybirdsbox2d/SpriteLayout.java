@@ -0,0 +1,188 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The sprites GameScreen draws between the sling's back and front layers in one
+ * frame, in draw order, as flat arrays. Each sprite names its sheet and an index
+ * into it; GameScreen looks the region up and hands the rest to the batch, so all
+ * the per-frame math here runs without GL and the allocation check covers it.
+ */
+public class SpriteLayout {
+    public static final int BIRD_SHEET = 0;  // indexed by BirdType ordinal
+    public static final int BLOCK_SHEET = 1; // indexed by EntityStore kind
+    public static final int PIG_SHEET = 2;   // indexed by PigType ordinal
+    private static final float BIRD_SCALE = 0.8f;
+    private static final float PIG_SIZE = LevelSimulator.PIG_SIZE;
+
+    private final float[] birdRatios = new float[BirdType.values().length];
+    private final IntArray visibleSlots = new IntArray();
+    private int size;
+    private int[] sheets;
+    private int[] regions;
+    private float[] x, y, width, height, rotation, alpha;
+
+    public SpriteLayout(int capacity) {
+        capacity = Math.max(1, capacity);
+        sheets = new int[capacity];
+        regions = new int[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        rotation = new float[capacity];
+        alpha = new float[capacity];
+        Arrays.fill(birdRatios, 1f);
+    }
+
+    /** Width over height of the bird's texture, so it isn't stretched to a square. */
+    public void setBirdRatio(BirdType type, float ratio) {
+        birdRatios[type.ordinal()] = ratio;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Lays out the next bird: in flight if {@code launched} and it has a slot, on the
+     * pulled band while aiming, otherwise resting in the sling.
+     */
+    public void addNextBird(RenderState entities, float blend, SlingAim sling, BirdType type, boolean launched) {
+        float birdSize = sling.getWidth() * BIRD_SCALE;
+        int slot = launched ? birdSlot(entities) : -1;
+        if (slot >= 0) {
+            addBird(type, entities.getInterpolatedX(slot, blend), entities.getInterpolatedY(slot, blend),
+                entities.getInterpolatedRotation(slot, blend), birdSize);
+        } else if (sling.isDragging()) {
+            addBird(type, sling.getDragX() - birdSize * 0.5f, sling.getDragY() - birdSize * 0.5f, 0, birdSize);
+        } else {
+            // Also covers a launch the simulation thread hasn't picked up yet
+            addBird(type, sling.getAnchorX() - birdSize * 0.5f, sling.getAnchorY(), 0, birdSize);
+        }
+    }
+
+    /** Lays out a bird queued behind the sling; {@code place} 1 is next after the one in the sling. */
+    public void addWaitingBird(SlingAim sling, BirdType type, int place) {
+        float birdSize = sling.getWidth() * BIRD_SCALE;
+        addBird(type, sling.getX() - place * birdSize * 1.2f, sling.getY(), 0, birdSize);
+    }
+
+    /** Lays out the blocks, then the pigs, whose bounds may fall inside the view; damage fades them. */
+    public void addBlocksAndPigs(RenderState entities, float blend, float viewWidth, float viewHeight) {
+        visibleSlots.clear();
+        entities.collectVisible(0, 0, viewWidth, viewHeight, visibleSlots);
+        for (int i = 0; i < visibleSlots.size; i++) {
+            int slot = visibleSlots.get(i);
+            int kind = entities.getKind(slot);
+            if (!EntityStore.isBlock(kind)) continue;
+            add(BLOCK_SHEET, kind, entities, slot, blend, Block.WIDTH, Block.HEIGHT,
+                1f - ((1f - entities.getHealthFraction(slot)) * 0.5f));
+        }
+        for (int i = 0; i < visibleSlots.size; i++) {
+            int slot = visibleSlots.get(i);
+            if (entities.getKind(slot) != EntityStore.PIG) continue;
+            add(PIG_SHEET, entities.getType(slot), entities, slot, blend, PIG_SIZE, PIG_SIZE,
+                Math.max(0.3f, entities.getHealthFraction(slot)));
+        }
+    }
+
+    // Only the bird in flight has a slot
+    private static int birdSlot(RenderState entities) {
+        for (int slot = 0; slot < entities.size(); slot++) {
+            if (entities.getKind(slot) == EntityStore.BIRD) return slot;
+        }
+        return -1;
+    }
+
+    private void addBird(BirdType type, float spriteX, float spriteY, float angle, float birdSize) {
+        int index = push(BIRD_SHEET, type.ordinal());
+        x[index] = spriteX;
+        y[index] = spriteY;
+        width[index] = birdSize;
+        height[index] = birdSize / birdRatios[type.ordinal()];
+        rotation[index] = angle;
+        alpha[index] = 1f;
+    }
+
+    private void add(int sheet, int region, RenderState entities, int slot, float blend,
+                     float spriteWidth, float spriteHeight, float spriteAlpha) {
+        int index = push(sheet, region);
+        x[index] = entities.getInterpolatedX(slot, blend);
+        y[index] = entities.getInterpolatedY(slot, blend);
+        width[index] = spriteWidth;
+        height[index] = spriteHeight;
+        rotation[index] = entities.getInterpolatedRotation(slot, blend);
+        alpha[index] = spriteAlpha;
+    }
+
+    private int push(int sheet, int region) {
+        if (size == sheets.length) {
+            grow(size * 2);
+        }
+        sheets[size] = sheet;
+        regions[size] = region;
+        return size++;
+    }
+
+    private void grow(int capacity) {
+        sheets = copyOf(sheets, capacity);
+        regions = copyOf(regions, capacity);
+        x = copyOf(x, capacity);
+        y = copyOf(y, capacity);
+        width = copyOf(width, capacity);
+        height = copyOf(height, capacity);
+        rotation = copyOf(rotation, capacity);
+        alpha = copyOf(alpha, capacity);
+    }
+
+    private static float[] copyOf(float[] array, int capacity) {
+        float[] copy = new float[capacity];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, capacity));
+        return copy;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        int[] copy = new int[capacity];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, capacity));
+        return copy;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getSheet(int index) {
+        return sheets[index];
+    }
+
+    public int getRegion(int index) {
+        return regions[index];
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public float getWidth(int index) {
+        return width[index];
+    }
+
+    public float getHeight(int index) {
+        return height[index];
+    }
+
+    public float getRotation(int index) {
+        return rotation[index];
+    }
+
+    public float getAlpha(int index) {
+        return alpha[index];
+    }
+}
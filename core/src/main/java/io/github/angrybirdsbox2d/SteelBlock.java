@@ -8,6 +8,11 @@ public class SteelBlock extends Block implements Serializable {
         super(x, y, 20);
     }
 
+    @Override
+    public Block copy() {
+        return copyStateTo(new SteelBlock(x, y));
+    }
+
     @Override
     public String getMaterial() {
         return "steel";
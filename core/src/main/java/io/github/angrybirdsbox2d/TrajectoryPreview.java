@@ -0,0 +1,147 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.physics.box2d.World;
+
+/**
+ * Predicted flight path for the current sling pull, kept as a flat array of pixel
+ * coordinates. The arc is only re-integrated when the clamped drag changes, and
+ * each segment is ray cast against the world so the path ends at the first fixture
+ * the bird would reach.
+ */
+public class TrajectoryPreview {
+    public static final int MAX_SEGMENTS = 100;
+    private static final float DT = 1/60f;
+
+    private final float[] points = new float[(MAX_SEGMENTS + 1) * 2];
+    private int pointCount;
+    private float cachedDragX = Float.NaN;
+    private float cachedDragY = Float.NaN;
+
+    private Body ignoredBody;
+    private Body hitBody;
+    private float hitX, hitY;
+    private float closestFraction;
+    private final Vector2 rayFrom = new Vector2();
+    private final Vector2 rayTo = new Vector2();
+
+    private final RayCastCallback callback = new RayCastCallback() {
+        @Override
+        public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
+            Body body = fixture.getBody();
+            // The aiming body and birds sit on the path itself
+            if (body == ignoredBody || body.getUserData() instanceof Bird) return -1;
+            if (fraction < closestFraction) {
+                closestFraction = fraction;
+                hitBody = body;
+                hitX = LevelSimulator.toPixels(point.x);
+                hitY = LevelSimulator.toPixels(point.y);
+            }
+            return fraction;
+        }
+    };
+
+    /**
+     * Rebuilds the arc for a pull of {@code (dragX, dragY)} from the sling anchor, in pixels,
+     * unless it already matches the cached one. {@code world} may be null to skip hit testing.
+     * Returns true if the arc was recomputed.
+     */
+    public boolean update(World world, Body ignore, float anchorX, float anchorY, float dragX, float dragY) {
+        if (dragX == cachedDragX && dragY == cachedDragY) return false;
+        cachedDragX = dragX;
+        cachedDragY = dragY;
+        ignoredBody = ignore;
+        hitBody = null;
+
+        float length = (float)Math.sqrt(dragX * dragX + dragY * dragY);
+        float x = anchorX + dragX;
+        float y = anchorY + dragY;
+        points[0] = x;
+        points[1] = y;
+        pointCount = 1;
+        if (length <= 0) return true;
+
+        // Same launch velocity LevelSimulator.launchBird gives the bird, in m/s
+        float distance = Math.min(length, LevelSimulator.MAX_DRAG_DISTANCE);
+        float launchPower = (distance / LevelSimulator.MAX_DRAG_DISTANCE) * LevelSimulator.LAUNCH_SPEED_MULTIPLIER;
+        float scale = -launchPower * distance / length / LevelSimulator.PPM;
+        float velocityX = dragX * scale;
+        float velocityY = dragY * scale;
+
+        for (int i = 0; i < MAX_SEGMENTS; i++) {
+            float nextX = x + velocityX * LevelSimulator.PPM * DT;
+            float nextY = y + velocityY * LevelSimulator.PPM * DT;
+
+            if (world != null) {
+                closestFraction = 1f;
+                rayFrom.set(LevelSimulator.toBox2D(x), LevelSimulator.toBox2D(y));
+                rayTo.set(LevelSimulator.toBox2D(nextX), LevelSimulator.toBox2D(nextY));
+                if (!rayFrom.epsilonEquals(rayTo, 0f)) {
+                    world.rayCast(callback, rayFrom, rayTo);
+                }
+                if (hitBody != null) {
+                    addPoint(hitX, hitY);
+                    break;
+                }
+            }
+
+            addPoint(nextX, nextY);
+            x = nextX;
+            y = nextY;
+            velocityY += LevelSimulator.GRAVITY * DT;
+
+            if (y < 0) break;
+        }
+        return true;
+    }
+
+    private void addPoint(float x, float y) {
+        points[pointCount * 2] = x;
+        points[pointCount * 2 + 1] = y;
+        pointCount++;
+    }
+
+    /** Forces the next {@link #update} to recompute, e.g. after the world changed under the arc. */
+    public void invalidate() {
+        cachedDragX = Float.NaN;
+        cachedDragY = Float.NaN;
+        hitBody = null;
+        pointCount = 0;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public float getX(int index) {
+        return points[index * 2];
+    }
+
+    public float getY(int index) {
+        return points[index * 2 + 1];
+    }
+
+    public boolean hasHit() {
+        return hitBody != null;
+    }
+
+    public Body getHitBody() {
+        return hitBody;
+    }
+
+    /** Game object the arc ends on, or null for the ground or no hit. */
+    public GameObject getHitObject() {
+        return hitBody != null && hitBody.getUserData() instanceof GameObject ? (GameObject) hitBody.getUserData() : null;
+    }
+
+    public float getHitX() {
+        return hitX;
+    }
+
+    public float getHitY() {
+        return hitY;
+    }
+}
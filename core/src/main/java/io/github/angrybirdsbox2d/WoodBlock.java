@@ -9,6 +9,11 @@ public class WoodBlock extends Block implements Serializable {
         super(x, y, 12.5f);
     }
 
+    @Override
+    public Block copy() {
+        return copyStateTo(new WoodBlock(x, y));
+    }
+
     @Override
     public String getMaterial() {
         return "wood";
@@ -0,0 +1,224 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.List;
+
+/**
+ * Everything needed to put a {@link LevelSimulator} back where it was: body transforms,
+ * velocities and awake flags in Box2D units, health, the order of the block, pig and
+ * bird lists, and the bird in flight if there is one. Blocks come first, then pigs,
+ * in list order. Restore with {@link LevelSimulator#restore}.
+ * <p>
+ * A checkpoint may also hold objects the simulator has never seen, e.g. one decoded
+ * by {@link SaveCodec}; restoring it gives them bodies and drops everything else.
+ */
+public class WorldCheckpoint {
+    private final int size;
+    private final int blockCount;
+    private final GameObject[] objects;
+    private final int[] kinds;
+    private final float[] bodyX;
+    private final float[] bodyY;
+    private final float[] angle;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] angularVelocity;
+    private final float[] health;
+    private final boolean[] awake;
+    private final Bird[] birds;
+    private final ObjectIntMap<GameObject> indices;
+
+    // The bird in flight is always the head of the bird queue
+    private boolean birdInFlight;
+    private float birdX, birdY, birdAngle;
+    private float birdVelocityX, birdVelocityY, birdAngularVelocity;
+    private boolean birdExploded;
+    private long stepCount;
+
+    WorldCheckpoint(int size, int blockCount, int birdCount) {
+        this.size = size;
+        this.blockCount = blockCount;
+        objects = new GameObject[size];
+        kinds = new int[size];
+        bodyX = new float[size];
+        bodyY = new float[size];
+        angle = new float[size];
+        velocityX = new float[size];
+        velocityY = new float[size];
+        angularVelocity = new float[size];
+        health = new float[size];
+        awake = new boolean[size];
+        birds = new Bird[birdCount];
+        indices = new ObjectIntMap<>(size);
+    }
+
+    /** Captures the blocks and pigs still in the level, and its bird queue. */
+    public static WorldCheckpoint capture(LevelSimulator simulator) {
+        LevelSingle level = simulator.getLevel();
+        List<Block> blocks = level.getBlocks();
+        List<Pig> pigs = level.getPigs();
+        List<Bird> queue = level.getBirds();
+
+        WorldCheckpoint checkpoint = new WorldCheckpoint(blocks.size() + pigs.size(), blocks.size(), queue.size());
+        int i = 0;
+        for (Block block : blocks) {
+            checkpoint.set(i++, block, simulator.getBody(block), block.getHealth());
+        }
+        for (Pig pig : pigs) {
+            checkpoint.set(i++, pig, simulator.getBody(pig), pig.getHp());
+        }
+        queue.toArray(checkpoint.birds);
+
+        Bird active = simulator.getActiveBird();
+        if (active != null) {
+            Body body = simulator.getBody(active);
+            Vector2 position = body.getPosition();
+            Vector2 velocity = body.getLinearVelocity();
+            checkpoint.setBirdInFlight(position.x, position.y, body.getAngle(),
+                velocity.x, velocity.y, body.getAngularVelocity(), simulator.hasBirdExploded());
+        }
+        checkpoint.stepCount = simulator.getStepCount();
+        return checkpoint;
+    }
+
+    private void set(int i, GameObject obj, Body body, float hp) {
+        Vector2 position = body.getPosition();
+        Vector2 velocity = body.getLinearVelocity();
+        set(i, obj, hp, position.x, position.y, body.getAngle(),
+            velocity.x, velocity.y, body.getAngularVelocity(), body.isAwake());
+    }
+
+    void set(int i, GameObject obj, float hp, float x, float y, float radians,
+             float vx, float vy, float omega, boolean isAwake) {
+        objects[i] = obj;
+        kinds[i] = EntityStore.kindOf(obj);
+        bodyX[i] = x;
+        bodyY[i] = y;
+        angle[i] = radians;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        angularVelocity[i] = omega;
+        health[i] = hp;
+        awake[i] = isAwake;
+        indices.put(obj, i);
+    }
+
+    void setBird(int i, Bird bird) {
+        birds[i] = bird;
+    }
+
+    void setBirdInFlight(float x, float y, float radians, float vx, float vy, float omega, boolean exploded) {
+        birdInFlight = true;
+        birdX = x;
+        birdY = y;
+        birdAngle = radians;
+        birdVelocityX = vx;
+        birdVelocityY = vy;
+        birdAngularVelocity = omega;
+        birdExploded = exploded;
+    }
+
+    void setStepCount(long stepCount) {
+        this.stepCount = stepCount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    public int indexOf(GameObject obj) {
+        return indices.get(obj, -1);
+    }
+
+    public GameObject getObject(int i) {
+        return objects[i];
+    }
+
+    public int getKind(int i) {
+        return kinds[i];
+    }
+
+    public float getBodyX(int i) {
+        return bodyX[i];
+    }
+
+    public float getBodyY(int i) {
+        return bodyY[i];
+    }
+
+    public float getAngle(int i) {
+        return angle[i];
+    }
+
+    public float getVelocityX(int i) {
+        return velocityX[i];
+    }
+
+    public float getVelocityY(int i) {
+        return velocityY[i];
+    }
+
+    public float getAngularVelocity(int i) {
+        return angularVelocity[i];
+    }
+
+    public float getHealth(int i) {
+        return health[i];
+    }
+
+    public boolean isAwake(int i) {
+        return awake[i];
+    }
+
+    public int getBirdCount() {
+        return birds.length;
+    }
+
+    public Bird getBird(int i) {
+        return birds[i];
+    }
+
+    /** True when the head of the bird queue was in flight; its body state is below. */
+    public boolean hasBirdInFlight() {
+        return birdInFlight;
+    }
+
+    public float getBirdX() {
+        return birdX;
+    }
+
+    public float getBirdY() {
+        return birdY;
+    }
+
+    public float getBirdAngle() {
+        return birdAngle;
+    }
+
+    public float getBirdVelocityX() {
+        return birdVelocityX;
+    }
+
+    public float getBirdVelocityY() {
+        return birdVelocityY;
+    }
+
+    public float getBirdAngularVelocity() {
+        return birdAngularVelocity;
+    }
+
+    public boolean hasBirdExploded() {
+        return birdExploded;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+}
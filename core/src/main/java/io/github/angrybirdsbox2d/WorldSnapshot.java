@@ -0,0 +1,210 @@
+package io.github.angrybirdsbox2d;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.List;
+
+/**
+ * Copy of the simulated state after one physics step, published by
+ * {@link SimulationThread} for the render thread. The simulation thread only
+ * writes a snapshot while it owns it; once handed over it is never touched
+ * again until the render thread gives it back, so readers need no locking.
+ * <p>
+ * Only primitives are copied in, never references to game objects: those keep
+ * changing on the simulation thread while the render thread reads the snapshot.
+ */
+public class WorldSnapshot implements RenderState {
+    private static final BirdType[] BIRD_TYPES = BirdType.values();
+
+    private long sequence;
+    private long publishNanos;
+    private float timeStep;
+
+    private int size;
+    private int[] kinds = new int[0];
+    private int[] types = new int[0];
+    private float[] prevX = new float[0];
+    private float[] prevY = new float[0];
+    private float[] prevRotation = new float[0];
+    private float[] x = new float[0];
+    private float[] y = new float[0];
+    private float[] rotation = new float[0];
+    private float[] health = new float[0];
+    private float[] halfWidth = new float[0];
+    private float[] halfHeight = new float[0];
+
+    private int[] birdTypes = new int[0];
+    private int birdCount;
+    private boolean birdInFlight;
+    private int pigCount;
+    private int birdsRetired;
+    private int launchesHandled;
+    private boolean lastLaunchAccepted;
+
+    private long stepNanos;
+    private int contactCount;
+    private int awakeBodies;
+
+    void capture(LevelSimulator simulator, long sequence, int birdsRetired, int launchesHandled,
+                 boolean lastLaunchAccepted, long publishNanos) {
+        this.sequence = sequence;
+        this.publishNanos = publishNanos;
+        this.timeStep = simulator.getTimeStep();
+        this.birdsRetired = birdsRetired;
+        this.launchesHandled = launchesHandled;
+        this.lastLaunchAccepted = lastLaunchAccepted;
+
+        EntityStore entities = simulator.getEntities();
+        size = entities.size();
+        ensureCapacity(size);
+        for (int slot = 0; slot < size; slot++) {
+            kinds[slot] = entities.getKind(slot);
+            types[slot] = entities.getType(slot);
+            prevX[slot] = entities.getInterpolatedX(slot, 0);
+            prevY[slot] = entities.getInterpolatedY(slot, 0);
+            prevRotation[slot] = entities.getInterpolatedRotation(slot, 0);
+            x[slot] = entities.getX(slot);
+            y[slot] = entities.getY(slot);
+            rotation[slot] = entities.getRotation(slot);
+            health[slot] = entities.getHealthFraction(slot);
+            halfWidth[slot] = entities.getHalfWidth(slot);
+            halfHeight[slot] = entities.getHalfHeight(slot);
+        }
+
+        LevelSingle level = simulator.getLevel();
+        List<Bird> queue = level.getBirds();
+        birdCount = queue.size();
+        if (birdTypes.length < birdCount) {
+            birdTypes = new int[birdCount];
+        }
+        for (int i = 0; i < birdCount; i++) {
+            birdTypes[i] = queue.get(i).getBirdType().ordinal();
+        }
+        birdInFlight = simulator.isBirdInFlight();
+        pigCount = level.getPigs().size();
+
+        stepNanos = simulator.getLastStepNanos();
+        contactCount = simulator.getWorld().getContactCount();
+        awakeBodies = simulator.getAwakeBodyCount();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (kinds.length >= capacity) return;
+        capacity = Math.max(capacity, kinds.length * 2);
+        kinds = new int[capacity];
+        types = new int[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        prevRotation = new float[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        rotation = new float[capacity];
+        health = new float[capacity];
+        halfWidth = new float[capacity];
+        halfHeight = new float[capacity];
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getPublishNanos() {
+        return publishNanos;
+    }
+
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getKind(int slot) {
+        return kinds[slot];
+    }
+
+    @Override
+    public int getType(int slot) {
+        return types[slot];
+    }
+
+    @Override
+    public float getInterpolatedX(int slot, float alpha) {
+        return prevX[slot] + (x[slot] - prevX[slot]) * alpha;
+    }
+
+    @Override
+    public float getInterpolatedY(int slot, float alpha) {
+        return prevY[slot] + (y[slot] - prevY[slot]) * alpha;
+    }
+
+    @Override
+    public float getInterpolatedRotation(int slot, float alpha) {
+        return prevRotation[slot] + (rotation[slot] - prevRotation[slot]) * alpha;
+    }
+
+    @Override
+    public float getHealthFraction(int slot) {
+        return health[slot];
+    }
+
+    // The grid belongs to the simulation thread, so snapshots test every slot's bounds
+    @Override
+    public void collectVisible(float minX, float minY, float maxX, float maxY, IntArray out) {
+        for (int slot = 0; slot < size; slot++) {
+            float reach = Math.max(halfWidth[slot], halfHeight[slot]) * 1.4143f;
+            float centerX = x[slot] + halfWidth[slot];
+            float centerY = y[slot] + halfHeight[slot];
+            if (centerX + reach >= minX && centerX - reach <= maxX &&
+                centerY + reach >= minY && centerY - reach <= maxY) {
+                out.add(slot);
+            }
+        }
+    }
+
+    public int getBirdCount() {
+        return birdCount;
+    }
+
+    /** Type of the bird at {@code index} in the queue; the head is the one in flight, if any. */
+    public BirdType getBirdType(int index) {
+        return BIRD_TYPES[birdTypes[index]];
+    }
+
+    public boolean isBirdInFlight() {
+        return birdInFlight;
+    }
+
+    public int getPigCount() {
+        return pigCount;
+    }
+
+    public int getBirdsRetired() {
+        return birdsRetired;
+    }
+
+    /** Launch commands the simulation thread has processed, accepted or not. */
+    public int getLaunchesHandled() {
+        return launchesHandled;
+    }
+
+    /** Whether the simulator accepted the last launch command it processed. */
+    public boolean isLastLaunchAccepted() {
+        return lastLaunchAccepted;
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    public int getContactCount() {
+        return contactCount;
+    }
+
+    public int getAwakeBodyCount() {
+        return awakeBodies;
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.angrybirdsbox2d;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Build-time compiler from the text level layouts to the binary file read by
+ * {@link LevelTemplate}. Each source is named {@code level<N>.lvl}, or
+ * {@code default.lvl} for the layout shared by levels without one, and holds one
+ * statement per line:
+ * <pre>
+ * # comment
+ * origin &lt;fraction of the world width where x = 0&gt;
+ * block &lt;wood|glass|steel&gt; &lt;x&gt; &lt;y&gt;
+ * pig &lt;small|medium|large&gt; &lt;hp&gt; &lt;x&gt; &lt;y&gt;
+ * </pre>
+ * Positions are in metres. Run by {@code ./gradlew core:compileLevels}, which
+ * resource processing depends on.
+ */
+public final class LevelCompiler {
+    private static final String EXTENSION = ".lvl";
+
+    private LevelCompiler() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: LevelCompiler <source dir> <output file>");
+            System.exit(2);
+        }
+        Path output = Paths.get(args[1]);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        ByteBuffer compiled = compile(Paths.get(args[0]));
+        Files.write(output, compiled.array());
+    }
+
+    public static ByteBuffer compile(Path sourceDir) throws IOException {
+        TreeMap<Integer, Layout> layouts = new TreeMap<>();
+        try (Stream<Path> files = Files.list(sourceDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(EXTENSION)) continue;
+                Layout layout = parse(file, levelNumber(file));
+                layouts.put(layout.number, layout);
+            }
+        }
+        if (!layouts.containsKey(LevelTemplate.DEFAULT_LEVEL)) {
+            throw new IOException("No default" + EXTENSION + " in " + sourceDir);
+        }
+
+        int size = 4 + 2 + 2;
+        for (Layout layout : layouts.values()) {
+            size += layout.size();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(LevelTemplate.MAGIC);
+        buffer.putShort(LevelTemplate.VERSION);
+        buffer.putShort((short) layouts.size());
+        for (Layout layout : layouts.values()) {
+            layout.put(buffer);
+        }
+        return buffer;
+    }
+
+    private static int levelNumber(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String stem = name.substring(0, name.length() - EXTENSION.length());
+        if (stem.equals("default")) {
+            return LevelTemplate.DEFAULT_LEVEL;
+        }
+        if (stem.startsWith("level")) {
+            try {
+                int number = Integer.parseInt(stem.substring("level".length()));
+                if (number > 0 && number <= Short.MAX_VALUE) return number;
+            } catch (NumberFormatException ignored) {
+                // Reported below
+            }
+        }
+        throw new IOException(name + ": expected level<N>" + EXTENSION + " or default" + EXTENSION);
+    }
+
+    private static Layout parse(Path file, int number) throws IOException {
+        Layout layout = new Layout(number);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] words = line.split("\\s+");
+            String where = file.getFileName() + ":" + (n + 1) + ": ";
+            try {
+                switch (words[0]) {
+                    case "origin":
+                        expect(words, 2, where);
+                        layout.origin = Float.parseFloat(words[1]);
+                        break;
+                    case "block":
+                        expect(words, 4, where);
+                        layout.blocks.add(new float[] {
+                            blockKind(words[1], where), Float.parseFloat(words[2]), Float.parseFloat(words[3])});
+                        break;
+                    case "pig":
+                        expect(words, 5, where);
+                        layout.pigs.add(new float[] {
+                            pigType(words[1], where), Integer.parseInt(words[2]),
+                            Float.parseFloat(words[3]), Float.parseFloat(words[4])});
+                        break;
+                    default:
+                        throw new IOException(where + "unknown statement '" + words[0] + "'");
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException(where + "bad number in '" + line + "'", e);
+            }
+        }
+        if (Float.isNaN(layout.origin)) {
+            throw new IOException(file.getFileName() + ": missing origin");
+        }
+        return layout;
+    }
+
+    private static void expect(String[] words, int count, String where) throws IOException {
+        if (words.length != count) {
+            throw new IOException(where + "'" + words[0] + "' takes " + (count - 1) + " values");
+        }
+    }
+
+    private static int blockKind(String name, String where) throws IOException {
+        switch (name) {
+            case "wood":
+                return EntityStore.WOOD;
+            case "glass":
+                return EntityStore.GLASS;
+            case "steel":
+                return EntityStore.STEEL;
+            default:
+                throw new IOException(where + "unknown block '" + name + "'");
+        }
+    }
+
+    private static int pigType(String name, String where) throws IOException {
+        try {
+            return PigType.valueOf(name.toUpperCase(Locale.ROOT)).ordinal();
+        } catch (IllegalArgumentException e) {
+            throw new IOException(where + "unknown pig '" + name + "'");
+        }
+    }
+
+    private static class Layout {
+        final int number;
+        float origin = Float.NaN;
+        final List<float[]> blocks = new ArrayList<>();
+        final List<float[]> pigs = new ArrayList<>();
+
+        Layout(int number) {
+            this.number = number;
+        }
+
+        int size() {
+            return 2 + 4 + 2 + blocks.size() * (1 + 4 + 4) + 2 + pigs.size() * (1 + 4 + 4 + 4);
+        }
+
+        void put(ByteBuffer buffer) {
+            buffer.putShort((short) number);
+            buffer.putFloat(origin);
+            buffer.putShort((short) blocks.size());
+            for (float[] block : blocks) {
+                buffer.put((byte) block[0]);
+                buffer.putFloat(block[1]);
+                buffer.putFloat(block[2]);
+            }
+            buffer.putShort((short) pigs.size());
+            for (float[] pig : pigs) {
+                buffer.put((byte) pig[0]);
+                buffer.putInt((int) pig[1]);
+                buffer.putFloat(pig[2]);
+                buffer.putFloat(pig[3]);
+            }
+        }
+    }
+}